@@ -3,7 +3,9 @@ package com.keiththompson.swipetorefresh47.sample;
 import android.content.Context;
 import android.support.v4.widget.SwipeRefreshLayout;
 import android.util.AttributeSet;
+import android.view.View;
 
+import com.fortysevendeg.android.swipelistview.RefreshSwipeListView;
 import com.fortysevendeg.android.swipelistview.RefreshSwipeListener;
 
 /**
@@ -14,6 +16,9 @@ import com.fortysevendeg.android.swipelistview.RefreshSwipeListener;
  * We use the RefreshSwipeListener in
  * the touch listener to set whether the refresh view should scroll up or not
  *
+ * The refresh animation is reported to the RefreshSwipeListView inside the layout,
+ * so its frame monitor also measures the frames dropped while refreshing
+ *
  */
 public class CustomSwipeRefreshLayout extends SwipeRefreshLayout implements RefreshSwipeListener {
 
@@ -22,6 +27,11 @@ public class CustomSwipeRefreshLayout extends SwipeRefreshLayout implements Refr
      */
     private boolean mCanScroll = false;
 
+    /**
+     * List inside the layout, told when the refresh animation starts and stops
+     */
+    private RefreshSwipeListView mRefreshSwipeListView;
+
     public CustomSwipeRefreshLayout(Context context) {
         super(context);
     }
@@ -30,6 +40,44 @@ public class CustomSwipeRefreshLayout extends SwipeRefreshLayout implements Refr
         super(context, attrs);
     }
 
+    @Override
+    protected void onFinishInflate() {
+        super.onFinishInflate();
+        for (int i = 0; i < getChildCount(); i++) {
+            View child = getChildAt(i);
+            if (child instanceof RefreshSwipeListView) {
+                mRefreshSwipeListView = (RefreshSwipeListView) child;
+            }
+        }
+    }
+
+    /**
+     * A refresh started by the user gesture does not go through setRefreshing,
+     * it is reported when the listener is called
+     */
+    @Override
+    public void setOnRefreshListener(final OnRefreshListener listener) {
+        super.setOnRefreshListener(listener == null ? null : new OnRefreshListener() {
+            @Override
+            public void onRefresh() {
+                setRefreshAnimationRunning(true);
+                listener.onRefresh();
+            }
+        });
+    }
+
+    @Override
+    public void setRefreshing(boolean refreshing) {
+        super.setRefreshing(refreshing);
+        setRefreshAnimationRunning(refreshing);
+    }
+
+    private void setRefreshAnimationRunning(boolean running) {
+        if (mRefreshSwipeListView != null) {
+            mRefreshSwipeListView.setRefreshAnimationRunning(running);
+        }
+    }
+
     /**
      *
      * @return Whether it is possible for
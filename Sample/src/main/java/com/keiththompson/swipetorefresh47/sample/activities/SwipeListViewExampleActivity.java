@@ -31,17 +31,34 @@ import android.view.MenuItem;
 
 import com.fortysevendeg.android.swipelistview.BaseSwipeListViewListener;
 import com.fortysevendeg.android.swipelistview.RefreshSwipeListView;
+import com.fortysevendeg.android.swipelistview.core.ListSnapshot;
 import com.keiththompson.swipetorefresh47.sample.CustomSwipeRefreshLayout;
 import com.keiththompson.swipetorefresh47.sample.R;
 import com.keiththompson.swipetorefresh47.sample.adapters.PackageAdapter;
 import com.keiththompson.swipetorefresh47.sample.adapters.PackageItem;
+import com.keiththompson.swipetorefresh47.sample.utils.PackageChangeReceiver;
+import com.keiththompson.swipetorefresh47.sample.utils.PackageItemSorter;
+import com.keiththompson.swipetorefresh47.sample.utils.PackageLabelCache;
 import com.keiththompson.swipetorefresh47.sample.utils.SettingsManager;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
-public class SwipeListViewExampleActivity extends FragmentActivity implements SwipeRefreshLayout.OnRefreshListener {
+public class SwipeListViewExampleActivity extends FragmentActivity implements SwipeRefreshLayout.OnRefreshListener,
+        PackageChangeReceiver.PackageChangeListener {
+
+    private static final String SNAPSHOT_FILE_NAME = "package_list.snapshot";
+
+    // One writer for every instance so a quick pause/resume/pause never races on the temp file
+    private static final Executor SNAPSHOT_WRITER = Executors.newSingleThreadExecutor();
 
     private PackageAdapter adapter;
     private List<PackageItem> data;
@@ -52,6 +69,8 @@ public class SwipeListViewExampleActivity extends FragmentActivity implements Sw
 
     private CustomSwipeRefreshLayout mSwipeRefreshLayout;
 
+    private PackageChangeReceiver packageChangeReceiver;
+
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -124,14 +143,74 @@ public class SwipeListViewExampleActivity extends FragmentActivity implements Sw
 
         reload();
 
+        // Show the last displayed list at once, the scan below is applied on top of it
+        ListSnapshot snapshot = ListSnapshot.read(getSnapshotFile());
+        if (snapshot != null) {
+            for (int i = 0; i < snapshot.getCount(); i++) {
+                PackageItem item = new PackageItem();
+                item.setPackageName(snapshot.getKey(i));
+                item.setName(snapshot.getLabel(i));
+                data.add(item);
+            }
+            adapter.notifyDataSetChanged();
+            swipeListView.restoreSwipeState(snapshot);
+        }
+
         new ListAppTask().execute();
 
-        progressDialog = new ProgressDialog(this);
-        progressDialog.setMessage(getString(R.string.loading));
-        progressDialog.setCancelable(false);
-        progressDialog.show();
+        // Installs, updates and removals after the first scan are applied one row at a time
+        packageChangeReceiver = new PackageChangeReceiver(this);
+        registerReceiver(packageChangeReceiver, PackageChangeReceiver.createIntentFilter());
+
+        if (snapshot == null) {
+            progressDialog = new ProgressDialog(this);
+            progressDialog.setMessage(getString(R.string.loading));
+            progressDialog.setCancelable(false);
+            progressDialog.show();
+        }
+
+
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        String[] keys = getKeys(data);
+        String[] labels = new String[data.size()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = data.get(i).getName();
+        }
+        // The snapshot is taken here, the write (and its fsync) happens off the UI thread
+        final ListSnapshot snapshot = swipeListView.createSnapshot(keys, labels);
+        final File file = getSnapshotFile();
+        SNAPSHOT_WRITER.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    snapshot.write(file);
+                } catch (IOException e) {
+                    Log.w("swipe", "Unable to write list snapshot", e);
+                }
+            }
+        });
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        unregisterReceiver(packageChangeReceiver);
+    }
 
+    private File getSnapshotFile() {
+        return new File(getFilesDir(), SNAPSHOT_FILE_NAME);
+    }
 
+    private static String[] getKeys(List<PackageItem> items) {
+        String[] keys = new String[items.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = items.get(i).getPackageName();
+        }
+        return keys;
     }
 
     private void reload() {
@@ -166,35 +245,166 @@ public class SwipeListViewExampleActivity extends FragmentActivity implements Sw
         new ListAppTask().execute();
     }
 
+    /**
+     * Creates the row of an installed application
+     *
+     * @param packageManager PackageManager
+     * @param labelCache     Label cache
+     * @param info           Application
+     * @param previous       Row currently displayed for the package, if any
+     * @return the row, or null if the application is not listed
+     */
+    private static PackageItem createItem(PackageManager packageManager, PackageLabelCache labelCache,
+                                          ApplicationInfo info, PackageItem previous) {
+        try {
+            if ((info.flags != ApplicationInfo.FLAG_SYSTEM) && info.enabled) {
+                if (info.icon != 0) {
+                    long versionStamp = PackageLabelCache.getVersionStamp(info);
+                    String label = labelCache.getLabel(info.packageName, versionStamp);
+                    PackageItem item = new PackageItem();
+                    item.setPackageName(info.packageName);
+                    if (label != null && previous != null && previous.getIcon() != null) {
+                        // Unchanged since the last scan
+                        item.setName(label);
+                        item.setIcon(previous.getIcon());
+                    } else {
+                        if (label == null) {
+                            label = packageManager.getApplicationLabel(info).toString();
+                            labelCache.putLabel(info.packageName, versionStamp, label);
+                        }
+                        item.setName(label);
+                        item.setIcon(packageManager.getDrawable(info.packageName, info.icon, info));
+                    }
+                    return item;
+                }
+            }
+        } catch (Exception e) {
+
+        }
+        return null;
+    }
+
+    private int indexOfPackage(String packageName) {
+        for (int i = 0; i < data.size(); i++) {
+            if (data.get(i).getPackageName().equals(packageName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void onPackageAdded(String packageName) {
+        new PackageChangeTask(packageName).execute();
+    }
+
+    @Override
+    public void onPackageReplaced(String packageName) {
+        new PackageChangeTask(packageName).execute();
+    }
+
+    @Override
+    public void onPackageRemoved(String packageName) {
+        int position = indexOfPackage(packageName);
+        if (position >= 0) {
+            swipeListView.removeSwipeState(position);
+            data.remove(position);
+            adapter.notifyDataSetChanged();
+        }
+    }
+
+    /**
+     * Resolves a single added or replaced package and applies it to its row
+     */
+    public class PackageChangeTask extends AsyncTask<Void, Void, PackageItem> {
+
+        private final String packageName;
+
+        public PackageChangeTask(String packageName) {
+            this.packageName = packageName;
+        }
+
+        @Override
+        protected PackageItem doInBackground(Void... args) {
+            PackageManager packageManager = getPackageManager();
+            PackageLabelCache labelCache = PackageLabelCache.getInstance(SwipeListViewExampleActivity.this);
+            try {
+                ApplicationInfo info = packageManager.getApplicationInfo(packageName, 0);
+                // A replaced package always gets its icon resolved again
+                PackageItem item = createItem(packageManager, labelCache, info, null);
+                labelCache.save();
+                return item;
+            } catch (PackageManager.NameNotFoundException e) {
+                return null;
+            }
+        }
+
+        @Override
+        protected void onPostExecute(PackageItem item) {
+            int position = indexOfPackage(packageName);
+            if (position >= 0) {
+                data.remove(position);
+                if (item == null) {
+                    swipeListView.removeSwipeState(position);
+                }
+            }
+            if (item != null) {
+                int insertAt = PackageItemSorter.insertionPoint(data, item);
+                if (position < 0) {
+                    swipeListView.insertSwipeState(insertAt);
+                } else if (insertAt != position) {
+                    // Label changed, the row keeps its swipe state at its new place
+                    swipeListView.moveSwipeState(position, insertAt);
+                }
+                data.add(insertAt, item);
+            }
+            adapter.notifyDataSetChanged();
+        }
+    }
+
     public class ListAppTask extends AsyncTask<Void, Void, List<PackageItem>> {
 
+        /**
+         * Items currently displayed, by package name, so unchanged packages keep their icon
+         */
+        private Map<String, PackageItem> previousItems = new HashMap<String, PackageItem>();
+
+        @Override
+        protected void onPreExecute() {
+            for (PackageItem item : data) {
+                previousItems.put(item.getPackageName(), item);
+            }
+        }
+
         protected List<PackageItem> doInBackground(Void... args) {
             PackageManager appInfo = getPackageManager();
+            PackageLabelCache labelCache = PackageLabelCache.getInstance(SwipeListViewExampleActivity.this);
             List<ApplicationInfo> listInfo = appInfo.getInstalledApplications(0);
-            Collections.sort(listInfo, new ApplicationInfo.DisplayNameComparator(appInfo));
 
             List<PackageItem> data = new ArrayList<PackageItem>();
+            Set<String> installed = new HashSet<String>();
 
             for (ApplicationInfo aListInfo : listInfo) {
-                try {
-                    if ((aListInfo.flags != ApplicationInfo.FLAG_SYSTEM) && aListInfo.enabled) {
-                        if (aListInfo.icon != 0) {
-                            PackageItem item = new PackageItem();
-                            item.setName(getPackageManager().getApplicationLabel(aListInfo).toString());
-                            item.setPackageName(aListInfo.packageName);
-                            item.setIcon(getPackageManager().getDrawable(aListInfo.packageName, aListInfo.icon, aListInfo));
-                            data.add(item);
-                        }
-                    }
-                } catch (Exception e) {
-
+                installed.add(aListInfo.packageName);
+                PackageItem item = createItem(appInfo, labelCache, aListInfo,
+                        previousItems.get(aListInfo.packageName));
+                if (item != null) {
+                    data.add(item);
                 }
             }
 
+            labelCache.retainAll(installed);
+            labelCache.save();
+
+            // Labels are resolved once above, sort on them instead of DisplayNameComparator
+            PackageItemSorter.sortByName(data);
+
             return data;
         }
 
         protected void onPostExecute(List<PackageItem> result) {
+            // Apply the scan as a diff so rows keep their swipe state
+            swipeListView.remapSwipeState(ListSnapshot.mapPositions(getKeys(data), getKeys(result)));
             data.clear();
             data.addAll(result);
             adapter.notifyDataSetChanged();
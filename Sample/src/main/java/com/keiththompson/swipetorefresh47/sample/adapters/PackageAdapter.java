@@ -26,17 +26,17 @@ import android.os.Build;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.BaseAdapter;
 import android.widget.Button;
 import android.widget.ImageView;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import com.fortysevendeg.android.swipelistview.SwipeAdapter;
 import com.keiththompson.swipetorefresh47.sample.R;
 
 import java.util.List;
 
-public class PackageAdapter extends BaseAdapter {
+public class PackageAdapter extends SwipeAdapter<PackageAdapter.ViewHolder> {
 
     private List<PackageItem> data;
     private Context context;
@@ -71,44 +71,48 @@ public class PackageAdapter extends BaseAdapter {
 //    }
 
     @Override
-    public View getView(final int position, View convertView, ViewGroup parent) {
-        final PackageItem item = getItem(position);
-        ViewHolder holder;
-        if (convertView == null) {
-            LayoutInflater li = (LayoutInflater) context.getSystemService(Context.LAYOUT_INFLATER_SERVICE);
-            convertView = li.inflate(R.layout.package_row, parent, false);
-            holder = new ViewHolder();
-            holder.ivImage = (ImageView) convertView.findViewById(R.id.example_row_iv_image);
-            holder.tvTitle = (TextView) convertView.findViewById(R.id.example_row_tv_title);
-            holder.tvDescription = (TextView) convertView.findViewById(R.id.example_row_tv_description);
-            holder.bAction1 = (Button) convertView.findViewById(R.id.example_row_b_action_1);
-            holder.bAction2 = (Button) convertView.findViewById(R.id.example_row_b_action_2);
-            holder.bAction3 = (Button) convertView.findViewById(R.id.example_row_b_action_3);
-            convertView.setTag(holder);
-        } else {
-            holder = (ViewHolder) convertView.getTag();
-        }
+    protected ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        LayoutInflater li = (LayoutInflater) context.getSystemService(Context.LAYOUT_INFLATER_SERVICE);
+        ViewHolder holder = new ViewHolder(li.inflate(R.layout.package_row, parent, false));
+        holder.ivImage = (ImageView) holder.itemView.findViewById(R.id.example_row_iv_image);
+        holder.tvTitle = (TextView) holder.itemView.findViewById(R.id.example_row_tv_title);
+        holder.tvDescription = (TextView) holder.itemView.findViewById(R.id.example_row_tv_description);
+        return holder;
+    }
+
+    @Override
+    protected void onBackViewInflated(ViewHolder holder, View backView) {
+        // The back view is a ViewStub in package_row, inflated on the first swipe of the row
+        holder.bAction1 = (Button) backView.findViewById(R.id.example_row_b_action_1);
+        holder.bAction2 = (Button) backView.findViewById(R.id.example_row_b_action_2);
+        holder.bAction3 = (Button) backView.findViewById(R.id.example_row_b_action_3);
+        registerClickable(holder, holder.bAction1);
+        registerClickable(holder, holder.bAction2);
+        registerClickable(holder, holder.bAction3);
+    }
 
+    @Override
+    protected void onBindViewHolder(ViewHolder holder, int position) {
+        PackageItem item = getItem(position);
         holder.ivImage.setImageDrawable(item.getIcon());
         holder.tvTitle.setText(item.getName());
         holder.tvDescription.setText(item.getPackageName());
+    }
 
-
-        holder.bAction1.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
+    @Override
+    protected void onItemViewClick(ViewHolder holder, View view, int position) {
+        PackageItem item = getItem(position);
+        switch (view.getId()) {
+            case R.id.example_row_b_action_1: {
                 Intent intent = context.getPackageManager().getLaunchIntentForPackage(item.getPackageName());
                 if (intent != null) {
                     context.startActivity(intent);
                 } else {
                     Toast.makeText(context, R.string.cantOpen, Toast.LENGTH_SHORT).show();
                 }
+                break;
             }
-        });
-
-        holder.bAction2.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
+            case R.id.example_row_b_action_2: {
                 if (isPlayStoreInstalled()) {
                     context.startActivity(new Intent(Intent.ACTION_VIEW,
                             Uri.parse("market://details?id=" + item.getPackageName())));
@@ -116,12 +120,9 @@ public class PackageAdapter extends BaseAdapter {
                     context.startActivity(new Intent(Intent.ACTION_VIEW,
                             Uri.parse("http://play.google.com/store/apps/details?id=" + item.getPackageName())));
                 }
+                break;
             }
-        });
-
-        holder.bAction3.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
+            case R.id.example_row_b_action_3: {
                 Uri packageUri = Uri.parse("package:" + item.getPackageName());
                 Intent uninstallIntent;
                 if (Build.VERSION.SDK_INT < Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
@@ -130,20 +131,22 @@ public class PackageAdapter extends BaseAdapter {
                     uninstallIntent = new Intent(Intent.ACTION_UNINSTALL_PACKAGE, packageUri);
                 }
                 context.startActivity(uninstallIntent);
+                break;
             }
-        });
-
-
-        return convertView;
+        }
     }
 
-    static class ViewHolder {
+    static class ViewHolder extends SwipeAdapter.ViewHolder {
         ImageView ivImage;
         TextView tvTitle;
         TextView tvDescription;
         Button bAction1;
         Button bAction2;
         Button bAction3;
+
+        ViewHolder(View itemView) {
+            super(itemView);
+        }
     }
 
     private boolean isPlayStoreInstalled() {
@@ -0,0 +1,80 @@
+package com.keiththompson.swipetorefresh47.sample.utils;
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ *  http://47deg.com
+ *  hello@47deg.com
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.Uri;
+
+/**
+ * Receives package added, removed and replaced broadcasts and reports the affected package,
+ * so the list can be updated one row at a time instead of rescanning every package.
+ */
+public class PackageChangeReceiver extends BroadcastReceiver {
+
+    /**
+     * Callback for single package changes
+     */
+    public interface PackageChangeListener {
+
+        void onPackageAdded(String packageName);
+
+        void onPackageRemoved(String packageName);
+
+        void onPackageReplaced(String packageName);
+    }
+
+    private final PackageChangeListener listener;
+
+    public PackageChangeReceiver(PackageChangeListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return filter matching the broadcasts handled by this receiver
+     */
+    public static IntentFilter createIntentFilter() {
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        filter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+        filter.addDataScheme("package");
+        return filter;
+    }
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        Uri data = intent.getData();
+        if (data == null) {
+            return;
+        }
+        String packageName = data.getSchemeSpecificPart();
+        // An update sends removed and added with EXTRA_REPLACING before replaced, only handle the latter
+        boolean replacing = intent.getBooleanExtra(Intent.EXTRA_REPLACING, false);
+        String action = intent.getAction();
+        if (Intent.ACTION_PACKAGE_REPLACED.equals(action)) {
+            listener.onPackageReplaced(packageName);
+        } else if (Intent.ACTION_PACKAGE_ADDED.equals(action) && !replacing) {
+            listener.onPackageAdded(packageName);
+        } else if (Intent.ACTION_PACKAGE_REMOVED.equals(action) && !replacing) {
+            listener.onPackageRemoved(packageName);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.keiththompson.swipetorefresh47.sample.utils;
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ *  http://47deg.com
+ *  hello@47deg.com
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import com.keiththompson.swipetorefresh47.sample.adapters.PackageItem;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sorts package items by display name, in the same order as
+ * ApplicationInfo.DisplayNameComparator, using labels that are already resolved.
+ *
+ * Each name is turned into a CollationKey once, so the sort itself only compares
+ * precomputed keys instead of collating (or resolving) labels on every comparison.
+ */
+public final class PackageItemSorter {
+
+    private PackageItemSorter() {
+    }
+
+    /**
+     * Sorts the items in place by locale-aware display name
+     *
+     * @param items Items with their name already set
+     */
+    public static void sortByName(List<PackageItem> items) {
+        Collator collator = Collator.getInstance();
+        int size = items.size();
+        KeyedItem[] keyed = new KeyedItem[size];
+        for (int i = 0; i < size; i++) {
+            PackageItem item = items.get(i);
+            keyed[i] = new KeyedItem(collator.getCollationKey(getName(item)), item);
+        }
+        Arrays.sort(keyed);
+        for (int i = 0; i < size; i++) {
+            items.set(i, keyed[i].item);
+        }
+    }
+
+    /**
+     * Finds where an item goes in a list that is already sorted by name
+     *
+     * @param items Sorted items
+     * @param item  Item to insert
+     * @return insertion position
+     */
+    public static int insertionPoint(List<PackageItem> items, PackageItem item) {
+        Collator collator = Collator.getInstance();
+        String name = getName(item);
+        int low = 0;
+        int high = items.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (collator.compare(getName(items.get(middle)), name) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static String getName(PackageItem item) {
+        return item.getName() != null ? item.getName() : item.getPackageName();
+    }
+
+    private static class KeyedItem implements Comparable<KeyedItem> {
+        final CollationKey key;
+        final PackageItem item;
+
+        KeyedItem(CollationKey key, PackageItem item) {
+            this.key = key;
+            this.item = item;
+        }
+
+        @Override
+        public int compareTo(KeyedItem other) {
+            return key.compareTo(other.key);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.keiththompson.swipetorefresh47.sample.utils;
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ *  http://47deg.com
+ *  hello@47deg.com
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.content.res.Configuration;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Persistent cache of application labels keyed by package name and package version.
+ *
+ * Labels are only resolved again through the PackageManager when the package
+ * changed since the last scan, so a warm refresh costs one lookup per changed package.
+ * Labels are localized, so the whole cache is dropped when the locale or the ui mode changes.
+ */
+public class PackageLabelCache {
+
+    private static final String TAG = "PackageLabelCache";
+
+    private static final String FILE_NAME = "package_labels.bin";
+
+    /**
+     * File format version, increase it when the layout of the file changes
+     */
+    private static final int FILE_VERSION = 2;
+
+    /**
+     * Instance
+     */
+    private static PackageLabelCache packageLabelCache = null;
+
+    private final File file;
+
+    private final Context context;
+
+    /**
+     * Configuration the cached labels were resolved in
+     */
+    private String configuration = null;
+
+    private final Map<String, Entry> entries = new HashMap<String, Entry>();
+
+    private boolean loaded = false;
+
+    private boolean dirty = false;
+
+    /**
+     * Constructor
+     *
+     * @param context
+     */
+    private PackageLabelCache(Context context) {
+        this.context = context;
+        file = new File(context.getFilesDir(), FILE_NAME);
+    }
+
+    public static synchronized PackageLabelCache getInstance(Context context) {
+        if (packageLabelCache == null) {
+            packageLabelCache = new PackageLabelCache(context.getApplicationContext());
+        }
+        return packageLabelCache;
+    }
+
+    /**
+     * Version stamp of an installed package. The apk file is rewritten on every
+     * install or update, so its modification time changes with the package version
+     * and is available on every API level.
+     *
+     * @param info Application info
+     * @return version stamp
+     */
+    public static long getVersionStamp(ApplicationInfo info) {
+        return info.sourceDir != null ? new File(info.sourceDir).lastModified() : 0;
+    }
+
+    /**
+     * Returns the cached label of a package
+     *
+     * @param packageName  Package name
+     * @param versionStamp Current version stamp of the package
+     * @return the label, or null if the package is unknown or changed since it was cached
+     */
+    public synchronized String getLabel(String packageName, long versionStamp) {
+        ensureLoaded();
+        checkConfiguration();
+        Entry entry = entries.get(packageName);
+        if (entry == null || entry.versionStamp != versionStamp) {
+            return null;
+        }
+        return entry.label;
+    }
+
+    /**
+     * Stores the label of a package
+     *
+     * @param packageName  Package name
+     * @param versionStamp Current version stamp of the package
+     * @param label        Resolved label
+     */
+    public synchronized void putLabel(String packageName, long versionStamp, String label) {
+        ensureLoaded();
+        checkConfiguration();
+        entries.put(packageName, new Entry(versionStamp, label));
+        dirty = true;
+    }
+
+    /**
+     * Drops every package that is not in the given set
+     *
+     * @param packageNames Packages currently installed
+     */
+    public synchronized void retainAll(Set<String> packageNames) {
+        ensureLoaded();
+        Iterator<String> iterator = entries.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (!packageNames.contains(iterator.next())) {
+                iterator.remove();
+                dirty = true;
+            }
+        }
+    }
+
+    /**
+     * Writes the cache to disk if it changed since it was read
+     */
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+            out.writeInt(FILE_VERSION);
+            out.writeUTF(configuration != null ? configuration : getCurrentConfiguration());
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue().versionStamp);
+                out.writeUTF(entry.getValue().label);
+            }
+            out.close();
+            out = null;
+            if (tmp.renameTo(file)) {
+                dirty = false;
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Unable to write " + file, e);
+        } finally {
+            closeQuietly(out);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!file.exists()) {
+            return;
+        }
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (in.readInt() != FILE_VERSION) {
+                return;
+            }
+            configuration = in.readUTF();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String packageName = in.readUTF();
+                long versionStamp = in.readLong();
+                String label = in.readUTF();
+                entries.put(packageName, new Entry(versionStamp, label));
+            }
+        } catch (IOException e) {
+            // A truncated or corrupt file only costs a full scan
+            Log.w(TAG, "Discarding unreadable " + file, e);
+            entries.clear();
+            dirty = true;
+        } finally {
+            closeQuietly(in);
+        }
+    }
+
+    /**
+     * Drops every label if they were resolved in another locale or ui mode
+     */
+    private void checkConfiguration() {
+        String current = getCurrentConfiguration();
+        if (!current.equals(configuration)) {
+            if (!entries.isEmpty()) {
+                entries.clear();
+                dirty = true;
+            }
+            configuration = current;
+        }
+    }
+
+    /**
+     * @return key of the configuration that affects labels
+     */
+    private String getCurrentConfiguration() {
+        Configuration config = context.getResources().getConfiguration();
+        return String.valueOf(config.locale) + "/" + config.uiMode;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    private static class Entry {
+        final long versionStamp;
+        final String label;
+
+        Entry(long versionStamp, String label) {
+            this.versionStamp = versionStamp;
+            this.label = label;
+        }
+    }
+}
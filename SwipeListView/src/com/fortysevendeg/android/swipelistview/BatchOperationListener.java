@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview;
+
+/**
+ * Listener to follow a bulk operation that SwipeListView runs over several frames
+ */
+public interface BatchOperationListener {
+
+    /**
+     * Called after each frame slice
+     * @param processed Number of items processed so far
+     * @param total Number of items of the operation
+     */
+    void onBatchProgress(int processed, int total);
+
+    /**
+     * Called once every item has been processed
+     */
+    void onBatchFinished();
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview;
+
+/**
+ * Listener for the frames SwipeListView drops while it animates
+ */
+public interface FrameDropListener {
+
+    /**
+     * Called when a frame takes several frame budgets to be shown
+     * @param animation Animation that was running, one of SwipeFrameMonitor.ANIMATION_*
+     * @param position Position of list of the animated row, or ListView.INVALID_POSITION
+     * @param frameMillis Duration of the frame
+     * @param droppedFrames Number of frames that were not shown
+     */
+    void onFramesDropped(int animation, int position, long frameMillis, int droppedFrames);
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview;
+
+/**
+ * Listener for the changes of the checked items of a SwipeListView
+ */
+public interface OnCheckedItemsChangedListener {
+
+    /**
+     * Called once for every change of the checked items, a single check swipe or a bulk operation
+     * @param fromPosition First position of the changed range, inclusive
+     * @param toPosition Last position of the changed range, exclusive
+     * @param checkedCount Number of checked items after the change
+     */
+    void onCheckedItemsChanged(int fromPosition, int toPosition, int checkedCount);
+}
@@ -20,9 +20,7 @@ package com.fortysevendeg.android.swipelistview;
 
 import android.content.Context;
 import android.content.res.TypedArray;
-import android.support.v4.view.ViewConfigurationCompat;
 import android.util.AttributeSet;
-import android.view.ViewConfiguration;
 
 /**
  * ListView subclass that provides the swipe functionality
@@ -67,6 +65,9 @@ public class RefreshSwipeListView extends SwipeListView {
         long swipeAnimationTime = 0;
         float swipeOffsetLeft = 0;
         float swipeOffsetRight = 0;
+        int swipeFixedRowHeight = 0;
+        int swipeDrawableChecked = 0;
+        int swipeDrawableUnchecked = 0;
 
         int swipeActionLeft = SWIPE_ACTION_REVEAL;
         int swipeActionRight = SWIPE_ACTION_REVEAL;
@@ -83,6 +84,9 @@ public class RefreshSwipeListView extends SwipeListView {
             swipeCloseAllItemsWhenMoveList = styled.getBoolean(R.styleable.SwipeListView_swipeCloseAllItemsWhenMoveList, true);
             mSwipeFrontView = styled.getResourceId(R.styleable.SwipeListView_swipeFrontView, 0);
             mSwipeBackView = styled.getResourceId(R.styleable.SwipeListView_swipeBackView, 0);
+            swipeFixedRowHeight = styled.getDimensionPixelSize(R.styleable.SwipeListView_swipeFixedRowHeight, 0);
+            swipeDrawableChecked = styled.getResourceId(R.styleable.SwipeListView_swipeDrawableChecked, 0);
+            swipeDrawableUnchecked = styled.getResourceId(R.styleable.SwipeListView_swipeDrawableUnchecked, 0);
         }
 
         if (mSwipeFrontView == 0 || mSwipeBackView == 0) {
@@ -94,9 +98,8 @@ public class RefreshSwipeListView extends SwipeListView {
             }
         }
 
-        final ViewConfiguration configuration = ViewConfiguration.get(getContext());
-        mTouchSlop = ViewConfigurationCompat.getScaledPagingTouchSlop(configuration);
         mTouchListener = new SwipeRefreshListViewTouchListener(this, mSwipeFrontView, mSwipeBackView);
+        mTouchSlop = mTouchListener.getSlop();
         if (swipeAnimationTime > 0) {
             mTouchListener.setAnimationTime(swipeAnimationTime);
         }
@@ -107,11 +110,29 @@ public class RefreshSwipeListView extends SwipeListView {
         mTouchListener.setSwipeMode(swipeMode);
         mTouchListener.setSwipeClosesAllItemsWhenListMoves(swipeCloseAllItemsWhenMoveList);
         mTouchListener.setSwipeOpenOnLongPress(swipeOpenOnLongPress);
-        setOnTouchListener(mTouchListener);
+        mTouchListener.setFixedRowHeight(swipeFixedRowHeight);
+        mTouchListener.setCheckedDrawables(swipeDrawableChecked, swipeDrawableUnchecked);
+        setOnTouchListener(mSwipeTouchDispatcher);
         setOnScrollListener(mTouchListener.makeScrollListener());
     }
 
     public void setRefreshSwipeListener(RefreshSwipeListener refreshSwipeListener) {
         ((SwipeRefreshListViewTouchListener) mTouchListener).setRefreshSwipeListener(refreshSwipeListener);
     }
+
+    /**
+     * Lets the frame monitor measure the refresh animation, which runs outside the list
+     * @param running true when the refresh animation starts, false when it ends
+     */
+    public void setRefreshAnimationRunning(boolean running) {
+        SwipeFrameMonitor frameMonitor = mTouchListener.getFrameMonitor();
+        if (frameMonitor == null) {
+            return;
+        }
+        if (running) {
+            frameMonitor.watch(SwipeFrameMonitor.ANIMATION_REFRESH, INVALID_POSITION, Long.MAX_VALUE);
+        } else {
+            frameMonitor.stop(SwipeFrameMonitor.ANIMATION_REFRESH);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview;
+
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewStub;
+import android.widget.BaseAdapter;
+
+/**
+ * Adapter base class for SwipeListView rows.
+ *
+ * Every row view carries a ViewHolder as its tag. The holder keeps the bound position and
+ * caches the front and back views the first time the list needs them, so binding and
+ * gesture handling never search the view tree again for a recycled row. Clicks on views
+ * registered with {@link #registerClickable(ViewHolder, View)} go through a single
+ * listener shared by every row.
+ *
+ * The back view may be declared as a ViewStub (with android:inflatedId set to the back view
+ * identifier). It is then inflated the first time the row is touched or opened and
+ * {@link #onBackViewInflated(ViewHolder, View)} is called; recycled rows keep it.
+ *
+ * @param <VH> ViewHolder type
+ */
+public abstract class SwipeAdapter<VH extends SwipeAdapter.ViewHolder> extends BaseAdapter {
+
+    /**
+     * Row view holder
+     */
+    public static class ViewHolder {
+
+        public final View itemView;
+
+        int mPosition = SwipeListView.INVALID_POSITION;
+
+        SwipeAdapter<?> mAdapter;
+
+        private View mFrontView;
+        private View mBackView;
+        private boolean mSwipeViewsResolved;
+
+        public ViewHolder(View itemView) {
+            this.itemView = itemView;
+        }
+
+        /**
+         * @return adapter position this row is bound to
+         */
+        public int getPosition() {
+            return mPosition;
+        }
+
+        /**
+         * @return the front view, once resolved by the list
+         */
+        public View getFrontView() {
+            return mFrontView;
+        }
+
+        /**
+         * @return the back view, once resolved by the list and inflated if it was declared as a ViewStub
+         */
+        public View getBackView() {
+            return mBackView instanceof ViewStub ? null : mBackView;
+        }
+
+        /**
+         * Looks up the front and back views the first time they are needed
+         * @param swipeFrontView front view Identifier
+         * @param swipeBackView back view Identifier
+         */
+        void resolveSwipeViews(int swipeFrontView, int swipeBackView) {
+            if (!mSwipeViewsResolved) {
+                mFrontView = itemView.findViewById(swipeFrontView);
+                mBackView = swipeBackView > 0 ? itemView.findViewById(swipeBackView) : null;
+                mSwipeViewsResolved = true;
+            }
+        }
+
+        /**
+         * Inflates the back view if it is still a ViewStub
+         * @return the back view
+         */
+        View inflateBackView() {
+            if (mBackView instanceof ViewStub) {
+                mBackView = ((ViewStub) mBackView).inflate();
+                if (mAdapter != null) {
+                    mAdapter.dispatchBackViewInflated(this);
+                }
+            }
+            return mBackView;
+        }
+    }
+
+    private final View.OnClickListener mClickListener = new View.OnClickListener() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onClick(View v) {
+            VH holder = (VH) v.getTag();
+            onItemViewClick(holder, v, holder.mPosition);
+        }
+    };
+
+    /**
+     * Creates the row view and its holder
+     *
+     * @param parent   Parent view
+     * @param viewType View type of the row
+     * @return new holder
+     */
+    protected abstract VH onCreateViewHolder(ViewGroup parent, int viewType);
+
+    /**
+     * Binds data to a row
+     *
+     * @param holder   Holder of the row
+     * @param position Adapter position
+     */
+    protected abstract void onBindViewHolder(VH holder, int position);
+
+    /**
+     * Called when a view registered with {@link #registerClickable(ViewHolder, View)} is clicked
+     *
+     * @param holder   Holder of the row
+     * @param view     Clicked view
+     * @param position Adapter position of the row
+     */
+    protected void onItemViewClick(VH holder, View view, int position) {
+    }
+
+    /**
+     * Called once per row view when a back view declared as a ViewStub is inflated.
+     * Look up the back view children and register their clicks here.
+     *
+     * @param holder   Holder of the row
+     * @param backView Inflated back view
+     */
+    protected void onBackViewInflated(VH holder, View backView) {
+    }
+
+    @SuppressWarnings("unchecked")
+    void dispatchBackViewInflated(ViewHolder holder) {
+        onBackViewInflated((VH) holder, holder.mBackView);
+    }
+
+    /**
+     * Routes the clicks of a child view of the row to {@link #onItemViewClick(ViewHolder, View, int)}.
+     * Call it from onCreateViewHolder or onBackViewInflated. The child view tag is used to find the holder.
+     *
+     * @param holder Holder of the row
+     * @param view   Child view of the row
+     */
+    protected final void registerClickable(VH holder, View view) {
+        view.setTag(holder);
+        view.setOnClickListener(mClickListener);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final View getView(int position, View convertView, ViewGroup parent) {
+        VH holder;
+        if (convertView == null) {
+            holder = onCreateViewHolder(parent, getItemViewType(position));
+            holder.mAdapter = this;
+            holder.itemView.setTag(holder);
+        } else {
+            holder = (VH) convertView.getTag();
+        }
+        holder.mPosition = position;
+        onBindViewHolder(holder, position);
+        return holder.itemView;
+    }
+
+    /**
+     * Returns the holder of a row view created by a SwipeAdapter
+     *
+     * @param rowView Row view
+     * @return holder, or null if the view was not created by a SwipeAdapter
+     */
+    public static ViewHolder getViewHolder(View rowView) {
+        Object tag = rowView.getTag();
+        return tag instanceof ViewHolder ? (ViewHolder) tag : null;
+    }
+}
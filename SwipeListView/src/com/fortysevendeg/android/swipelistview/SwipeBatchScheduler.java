@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview;
+
+import android.support.v4.view.ViewCompat;
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Runs bulk list operations on the main thread without blowing the frame budget.
+ *
+ * Each batch walks a range of positions. Every frame the scheduler processes items until the
+ * frame budget is spent, then posts itself to the next animation frame. Callers do the visible
+ * rows themselves before scheduling, so the user sees the result at once and only the off-screen
+ * state is spread over the following frames.
+ */
+class SwipeBatchScheduler {
+
+    /**
+     * Default time spent per frame, a quarter of a 60 fps frame
+     */
+    final static long DEFAULT_FRAME_BUDGET_NANOS = 4000000L;
+
+    /**
+     * Work over a range of positions
+     */
+    abstract static class Batch {
+
+        private final int mTotal;
+        private int mNext = 0;
+        private final List<BatchOperationListener> mListeners = new ArrayList<BatchOperationListener>();
+
+        /**
+         * @param total Number of positions, the batch processes 0 to total - 1
+         */
+        Batch(int total) {
+            mTotal = total;
+        }
+
+        /**
+         * @param listener Listener notified of progress and completion, ignored if null
+         */
+        void addListener(BatchOperationListener listener) {
+            if (listener != null) {
+                mListeners.add(listener);
+            }
+        }
+
+        /**
+         * @return number of positions processed so far
+         */
+        int getProcessed() {
+            return mNext;
+        }
+
+        /**
+         * @return number of positions of the batch
+         */
+        int getTotal() {
+            return mTotal;
+        }
+
+        /**
+         * Processes one position
+         * @param position Position of list
+         */
+        abstract void process(int position);
+
+        /**
+         * Called once every position has been processed, before the listener
+         */
+        void onFinished() {
+        }
+    }
+
+    private final View mHost;
+    private final LinkedList<Batch> mBatches = new LinkedList<Batch>();
+    private long mFrameBudgetNanos = DEFAULT_FRAME_BUDGET_NANOS;
+    private boolean mPosted;
+
+    private final Runnable mFrameRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mPosted = false;
+            runSlice(System.nanoTime() + mFrameBudgetNanos);
+        }
+    };
+
+    SwipeBatchScheduler(View host) {
+        mHost = host;
+    }
+
+    /**
+     * @param frameBudgetNanos Time that may be spent on batches in one frame
+     */
+    void setFrameBudget(long frameBudgetNanos) {
+        mFrameBudgetNanos = frameBudgetNanos;
+    }
+
+    /**
+     * Queues a batch, it starts on the next frame
+     * @param batch Batch to run
+     */
+    void schedule(Batch batch) {
+        mBatches.add(batch);
+        postNextSlice();
+    }
+
+    /**
+     * Drops a queued batch without finishing it
+     * @param batch Batch to drop
+     */
+    void cancel(Batch batch) {
+        if (mBatches.remove(batch) && mBatches.isEmpty() && mPosted) {
+            mHost.removeCallbacks(mFrameRunnable);
+            mPosted = false;
+        }
+    }
+
+    /**
+     * Drops every queued batch without finishing them
+     */
+    void cancelAll() {
+        mBatches.clear();
+        if (mPosted) {
+            mHost.removeCallbacks(mFrameRunnable);
+            mPosted = false;
+        }
+    }
+
+    /**
+     * Finishes every queued batch now. Used before the positions are shifted by an adapter change.
+     */
+    void flush() {
+        runSlice(Long.MAX_VALUE);
+    }
+
+    /**
+     * @return true while some batch is queued
+     */
+    boolean isRunning() {
+        return !mBatches.isEmpty();
+    }
+
+    private void runSlice(long deadline) {
+        while (!mBatches.isEmpty()) {
+            Batch batch = mBatches.getFirst();
+            while (batch.mNext < batch.mTotal) {
+                batch.process(batch.mNext++);
+                if (System.nanoTime() >= deadline && batch.mNext < batch.mTotal) {
+                    notifyProgress(batch);
+                    postNextSlice();
+                    return;
+                }
+            }
+            mBatches.removeFirst();
+            notifyProgress(batch);
+            batch.onFinished();
+            for (BatchOperationListener listener : batch.mListeners) {
+                listener.onBatchFinished();
+            }
+            if (System.nanoTime() >= deadline && !mBatches.isEmpty()) {
+                postNextSlice();
+                return;
+            }
+        }
+    }
+
+    private void notifyProgress(Batch batch) {
+        for (BatchOperationListener listener : batch.mListeners) {
+            listener.onBatchProgress(batch.mNext, batch.mTotal);
+        }
+    }
+
+    private void postNextSlice() {
+        if (!mPosted) {
+            mPosted = true;
+            ViewCompat.postOnAnimation(mHost, mFrameRunnable);
+        }
+    }
+}
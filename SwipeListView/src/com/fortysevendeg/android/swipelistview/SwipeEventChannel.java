@@ -0,0 +1,301 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers the events of a SwipeListView to a listener on a background executor, so slow
+ * handlers (database writes, analytics) do not stall the frames that follow an animation.
+ *
+ * Register the channel as the listener of the list with {@link #getEvents()} as the event mask.
+ * The list still commits its state on the main thread before each event is queued; only the
+ * application listener runs on the executor, in the order the events happened and never on two
+ * threads at once.
+ *
+ * onDismiss, onListChanged and onChangeSwipeMode are not queued. The first two expect the
+ * adapter to be changed before they return and the last one answers with list state, so they
+ * are delivered synchronously on the main thread, possibly before queued events that happened
+ * earlier.
+ *
+ * Events go through a bounded single producer, single consumer queue of preallocated slots, so
+ * queuing does not lock nor allocate. A run of onMove events for the same row is delivered as
+ * the last one only. When the queue is full onMove events are dropped, since a later move
+ * supersedes them, and other events follow the overflow policy.
+ */
+public class SwipeEventChannel implements SwipeListViewListener {
+
+    /**
+     * When the queue is full the new event is dropped and counted, see {@link #getDroppedCount()}
+     */
+    public final static int OVERFLOW_DROP = 0;
+
+    /**
+     * When the queue is full queuing throws IllegalStateException, to size the queue during development
+     */
+    public final static int OVERFLOW_THROW = 1;
+
+    private static class Event {
+        int mType;
+        int mPosition;
+        int mArg1;
+        float mX;
+        boolean mFlag;
+    }
+
+    private final SwipeListViewListener mListener;
+    private final Executor mExecutor;
+    private final int mOverflowPolicy;
+
+    private final Event[] mEvents;
+    private final int mMask;
+    private final AtomicLong mHead = new AtomicLong();
+    private final AtomicLong mTail = new AtomicLong();
+    private final AtomicLong mDropped = new AtomicLong();
+    private final AtomicBoolean mScheduled = new AtomicBoolean();
+
+    private final Runnable mDrainRunnable = new Runnable() {
+        @Override
+        public void run() {
+            do {
+                drain();
+                mScheduled.set(false);
+            } while (!isEmpty() && mScheduled.compareAndSet(false, true));
+        }
+    };
+
+    /**
+     * @param listener Listener called on the executor
+     * @param executor Executor that runs the listener, for example a single thread executor
+     * @param capacity Maximum number of queued events, rounded up to a power of two
+     * @param overflowPolicy OVERFLOW_DROP or OVERFLOW_THROW
+     */
+    public SwipeEventChannel(SwipeListViewListener listener, Executor executor, int capacity, int overflowPolicy) {
+        mListener = listener;
+        mExecutor = executor;
+        mOverflowPolicy = overflowPolicy;
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        mEvents = new Event[size];
+        for (int i = 0; i < size; i++) {
+            mEvents[i] = new Event();
+        }
+        mMask = size - 1;
+    }
+
+    /**
+     * @return event mask to register the channel with, every event
+     */
+    public int getEvents() {
+        return SwipeListView.EVENT_ALL;
+    }
+
+    /**
+     * @return number of events dropped because the queue was full
+     */
+    public long getDroppedCount() {
+        return mDropped.get();
+    }
+
+    @Override
+    public void onOpened(int position, boolean toRight) {
+        Event event = claim(SwipeListView.EVENT_OPENED);
+        if (event != null) {
+            event.mPosition = position;
+            event.mFlag = toRight;
+            publish();
+        }
+    }
+
+    @Override
+    public void onClosed(int position, boolean fromRight) {
+        Event event = claim(SwipeListView.EVENT_CLOSED);
+        if (event != null) {
+            event.mPosition = position;
+            event.mFlag = fromRight;
+            publish();
+        }
+    }
+
+    /**
+     * Delivered synchronously
+     */
+    @Override
+    public void onListChanged() {
+        mListener.onListChanged();
+    }
+
+    @Override
+    public void onMove(int position, float x) {
+        Event event = claim(SwipeListView.EVENT_MOVE);
+        if (event != null) {
+            event.mPosition = position;
+            event.mX = x;
+            publish();
+        }
+    }
+
+    @Override
+    public void onStartOpen(int position, int action, boolean right) {
+        Event event = claim(SwipeListView.EVENT_START_OPEN);
+        if (event != null) {
+            event.mPosition = position;
+            event.mArg1 = action;
+            event.mFlag = right;
+            publish();
+        }
+    }
+
+    @Override
+    public void onStartClose(int position, boolean right) {
+        Event event = claim(SwipeListView.EVENT_START_CLOSE);
+        if (event != null) {
+            event.mPosition = position;
+            event.mFlag = right;
+            publish();
+        }
+    }
+
+    @Override
+    public void onClickFrontView(int position) {
+        Event event = claim(SwipeListView.EVENT_CLICK_FRONT_VIEW);
+        if (event != null) {
+            event.mPosition = position;
+            publish();
+        }
+    }
+
+    @Override
+    public void onClickBackView(int position) {
+        Event event = claim(SwipeListView.EVENT_CLICK_BACK_VIEW);
+        if (event != null) {
+            event.mPosition = position;
+            publish();
+        }
+    }
+
+    /**
+     * Delivered synchronously, the listener removes the rows from the adapter before returning
+     */
+    @Override
+    public void onDismiss(int[] reverseSortedPositions) {
+        mListener.onDismiss(reverseSortedPositions);
+    }
+
+    /**
+     * Delivered synchronously, the answer is needed right away
+     */
+    @Override
+    public int onChangeSwipeMode(int position) {
+        return mListener.onChangeSwipeMode(position);
+    }
+
+    /**
+     * Returns the next free slot, or null if the event has to be dropped
+     * @param type One of SwipeListView.EVENT_*
+     * @return slot to fill before calling publish
+     */
+    private Event claim(int type) {
+        long tail = mTail.get();
+        if (tail - mHead.get() > mMask) {
+            if (type != SwipeListView.EVENT_MOVE && mOverflowPolicy == OVERFLOW_THROW) {
+                throw new IllegalStateException("Swipe event queue is full, " + mEvents.length + " events");
+            }
+            mDropped.incrementAndGet();
+            return null;
+        }
+        Event event = mEvents[(int) tail & mMask];
+        event.mType = type;
+        return event;
+    }
+
+    /**
+     * Makes the claimed slot visible to the consumer and makes sure a drain is scheduled
+     */
+    private void publish() {
+        mTail.lazySet(mTail.get() + 1);
+        if (mScheduled.compareAndSet(false, true)) {
+            try {
+                mExecutor.execute(mDrainRunnable);
+            } catch (RuntimeException e) {
+                mScheduled.set(false);
+                throw e;
+            }
+        }
+    }
+
+    private boolean isEmpty() {
+        return mHead.get() == mTail.get();
+    }
+
+    /**
+     * Delivers every queued event, on the executor
+     */
+    private void drain() {
+        long head = mHead.get();
+        long tail = mTail.get();
+        while (head < tail) {
+            Event event = mEvents[(int) head & mMask];
+            int type = event.mType;
+            int position = event.mPosition;
+            int arg1 = event.mArg1;
+            float x = event.mX;
+            boolean flag = event.mFlag;
+            boolean superseded = false;
+            if (type == SwipeListView.EVENT_MOVE && head + 1 < tail) {
+                Event next = mEvents[(int) (head + 1) & mMask];
+                superseded = next.mType == SwipeListView.EVENT_MOVE && next.mPosition == position;
+            }
+            mHead.lazySet(++head);
+            if (!superseded) {
+                deliver(type, position, arg1, x, flag);
+            }
+            if (head == tail) {
+                tail = mTail.get();
+            }
+        }
+    }
+
+    private void deliver(int type, int position, int arg1, float x, boolean flag) {
+        switch (type) {
+            case SwipeListView.EVENT_OPENED:
+                mListener.onOpened(position, flag);
+                break;
+            case SwipeListView.EVENT_CLOSED:
+                mListener.onClosed(position, flag);
+                break;
+            case SwipeListView.EVENT_MOVE:
+                mListener.onMove(position, x);
+                break;
+            case SwipeListView.EVENT_START_OPEN:
+                mListener.onStartOpen(position, arg1, flag);
+                break;
+            case SwipeListView.EVENT_START_CLOSE:
+                mListener.onStartClose(position, flag);
+                break;
+            case SwipeListView.EVENT_CLICK_FRONT_VIEW:
+                mListener.onClickFrontView(position);
+                break;
+            case SwipeListView.EVENT_CLICK_BACK_VIEW:
+                mListener.onClickBackView(position);
+                break;
+        }
+    }
+}
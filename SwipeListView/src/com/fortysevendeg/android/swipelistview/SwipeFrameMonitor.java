@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview;
+
+import android.support.v4.view.ViewCompat;
+import android.view.View;
+import android.widget.ListView;
+
+/**
+ * Measures the frames shown while SwipeListView animations run and counts the ones over budget.
+ *
+ * Each animation is watched for its known duration, so a cancelled animation never leaves the
+ * monitor running. While something is watched the monitor posts itself to every animation frame
+ * and measures the time between two frames; on Jelly Bean and newer these callbacks come from
+ * Choreographer, on older versions they are only an approximation. Nothing is posted while no
+ * animation runs.
+ */
+public class SwipeFrameMonitor {
+
+    public final static int ANIMATION_REVEAL = 0;
+    public final static int ANIMATION_DISMISS = 1;
+    public final static int ANIMATION_CHECK = 2;
+    public final static int ANIMATION_REFRESH = 3;
+
+    private final static int ANIMATION_COUNT = 4;
+
+    /**
+     * Default frame budget, one 60 fps frame
+     */
+    public final static long DEFAULT_FRAME_BUDGET_NANOS = 16666667L;
+
+    /**
+     * Default number of dropped frames in a single frame for it to be reported
+     */
+    public final static int DEFAULT_SEVERE_DROPPED_FRAMES = 3;
+
+    private final View mHost;
+
+    private final long[] mWatchedUntil = new long[ANIMATION_COUNT];
+    private final int[] mPositions = new int[ANIMATION_COUNT];
+    private final int[] mFrames = new int[ANIMATION_COUNT];
+    private final int[] mJankyFrames = new int[ANIMATION_COUNT];
+    private final int[] mDroppedFrames = new int[ANIMATION_COUNT];
+    private final long[] mMaxFrameNanos = new long[ANIMATION_COUNT];
+
+    private long mFrameBudgetNanos = DEFAULT_FRAME_BUDGET_NANOS;
+    private int mSevereDroppedFrames = DEFAULT_SEVERE_DROPPED_FRAMES;
+    private FrameDropListener mFrameDropListener;
+
+    private long mLastFrameNanos = -1;
+    private boolean mPosted;
+
+    private final Runnable mFrameRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mPosted = false;
+            onFrame(System.nanoTime());
+        }
+    };
+
+    SwipeFrameMonitor(View host) {
+        mHost = host;
+        for (int i = 0; i < ANIMATION_COUNT; i++) {
+            mPositions[i] = ListView.INVALID_POSITION;
+        }
+    }
+
+    /**
+     * @param frameDropListener Listener for frames that drop several frames, may be null
+     */
+    public void setFrameDropListener(FrameDropListener frameDropListener) {
+        mFrameDropListener = frameDropListener;
+    }
+
+    /**
+     * @param frameBudgetNanos Time a frame may take, 1 / refresh rate of the display
+     */
+    public void setFrameBudget(long frameBudgetNanos) {
+        mFrameBudgetNanos = frameBudgetNanos;
+    }
+
+    /**
+     * @param severeDroppedFrames Number of frames dropped at once for the frame to be reported
+     */
+    public void setSevereDroppedFrames(int severeDroppedFrames) {
+        mSevereDroppedFrames = severeDroppedFrames;
+    }
+
+    /**
+     * @param animation One of ANIMATION_*
+     * @return number of frames measured while the animation ran
+     */
+    public int getFrameCount(int animation) {
+        return mFrames[animation];
+    }
+
+    /**
+     * @param animation One of ANIMATION_*
+     * @return number of frames over budget while the animation ran
+     */
+    public int getJankyFrameCount(int animation) {
+        return mJankyFrames[animation];
+    }
+
+    /**
+     * @param animation One of ANIMATION_*
+     * @return number of frames that were not shown while the animation ran
+     */
+    public int getDroppedFrameCount(int animation) {
+        return mDroppedFrames[animation];
+    }
+
+    /**
+     * @param animation One of ANIMATION_*
+     * @return longest frame while the animation ran, in milliseconds
+     */
+    public long getMaxFrameMillis(int animation) {
+        return mMaxFrameNanos[animation] / 1000000L;
+    }
+
+    /**
+     * Clears the counters
+     */
+    public void reset() {
+        for (int i = 0; i < ANIMATION_COUNT; i++) {
+            mFrames[i] = 0;
+            mJankyFrames[i] = 0;
+            mDroppedFrames[i] = 0;
+            mMaxFrameNanos[i] = 0;
+        }
+    }
+
+    /**
+     * Watches the frames of an animation that is starting
+     * @param animation One of ANIMATION_*
+     * @param position Position of list of the animated row, or ListView.INVALID_POSITION
+     * @param durationMillis Duration of the animation, Long.MAX_VALUE until stop is called
+     */
+    void watch(int animation, int position, long durationMillis) {
+        long now = System.nanoTime();
+        long until = durationMillis == Long.MAX_VALUE ? Long.MAX_VALUE : now + durationMillis * 1000000L;
+        mWatchedUntil[animation] = Math.max(mWatchedUntil[animation], until);
+        mPositions[animation] = position;
+        if (!mPosted) {
+            mLastFrameNanos = -1;
+            postFrame();
+        }
+    }
+
+    /**
+     * Stops watching an animation
+     * @param animation One of ANIMATION_*
+     */
+    void stop(int animation) {
+        mWatchedUntil[animation] = 0;
+    }
+
+    /**
+     * Stops watching every animation, used when the list leaves the window
+     */
+    void stopAll() {
+        for (int i = 0; i < ANIMATION_COUNT; i++) {
+            mWatchedUntil[i] = 0;
+        }
+        if (mPosted) {
+            mHost.removeCallbacks(mFrameRunnable);
+            mPosted = false;
+        }
+    }
+
+    private void onFrame(long frameNanos) {
+        boolean watching = false;
+        if (mLastFrameNanos >= 0) {
+            long duration = frameNanos - mLastFrameNanos;
+            int dropped = (int) ((duration + mFrameBudgetNanos / 2) / mFrameBudgetNanos) - 1;
+            int severeAnimation = -1;
+            for (int i = 0; i < ANIMATION_COUNT; i++) {
+                if (mWatchedUntil[i] < mLastFrameNanos) {
+                    continue;
+                }
+                mFrames[i]++;
+                mMaxFrameNanos[i] = Math.max(mMaxFrameNanos[i], duration);
+                if (dropped > 0) {
+                    mJankyFrames[i]++;
+                    mDroppedFrames[i] += dropped;
+                    if (dropped >= mSevereDroppedFrames) {
+                        severeAnimation = i;
+                    }
+                }
+            }
+            if (severeAnimation >= 0 && mFrameDropListener != null) {
+                mFrameDropListener.onFramesDropped(severeAnimation, mPositions[severeAnimation],
+                        duration / 1000000L, dropped);
+            }
+        }
+        for (int i = 0; i < ANIMATION_COUNT; i++) {
+            watching |= mWatchedUntil[i] >= frameNanos;
+        }
+        mLastFrameNanos = frameNanos;
+        if (watching) {
+            postFrame();
+        }
+    }
+
+    private void postFrame() {
+        if (!mPosted) {
+            mPosted = true;
+            ViewCompat.postOnAnimation(mHost, mFrameRunnable);
+        }
+    }
+}
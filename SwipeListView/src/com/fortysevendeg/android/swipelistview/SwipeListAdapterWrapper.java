@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview;
+
+import android.database.DataSetObserver;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Filter;
+import android.widget.Filterable;
+import android.widget.ListAdapter;
+import android.widget.WrapperListAdapter;
+
+/**
+ * Adapter installed by SwipeListView around the application adapter. Every row returned by
+ * getView is put back, without animation, in the swipe state of the position it is bound to,
+ * so a recycled row never shows the translation left by another position.
+ *
+ * A Filterable application adapter is wrapped in a Filterable wrapper, so the list text
+ * filter keeps working.
+ */
+class SwipeListAdapterWrapper implements WrapperListAdapter {
+
+    private final ListAdapter mAdapter;
+    private final SwipeListView mSwipeListView;
+
+    SwipeListAdapterWrapper(ListAdapter adapter, SwipeListView swipeListView) {
+        mAdapter = adapter;
+        mSwipeListView = swipeListView;
+    }
+
+    /**
+     * Wraps an application adapter, keeping it Filterable if it is
+     * @param adapter Application adapter
+     * @param swipeListView List the adapter is set on
+     * @return wrapper
+     */
+    static SwipeListAdapterWrapper wrap(ListAdapter adapter, SwipeListView swipeListView) {
+        if (adapter instanceof Filterable) {
+            return new FilterableWrapper(adapter, swipeListView);
+        }
+        return new SwipeListAdapterWrapper(adapter, swipeListView);
+    }
+
+    /**
+     * Wrapper of a Filterable adapter
+     */
+    private static class FilterableWrapper extends SwipeListAdapterWrapper implements Filterable {
+
+        FilterableWrapper(ListAdapter adapter, SwipeListView swipeListView) {
+            super(adapter, swipeListView);
+        }
+
+        @Override
+        public Filter getFilter() {
+            return ((Filterable) getWrappedAdapter()).getFilter();
+        }
+    }
+
+    @Override
+    public ListAdapter getWrappedAdapter() {
+        return mAdapter;
+    }
+
+    @Override
+    public View getView(int position, View convertView, ViewGroup parent) {
+        View view = mAdapter.getView(position, convertView, parent);
+        mSwipeListView.onBindRow(view, position);
+        return view;
+    }
+
+    @Override
+    public boolean areAllItemsEnabled() {
+        return mAdapter.areAllItemsEnabled();
+    }
+
+    @Override
+    public boolean isEnabled(int position) {
+        return mAdapter.isEnabled(position);
+    }
+
+    @Override
+    public void registerDataSetObserver(DataSetObserver observer) {
+        mAdapter.registerDataSetObserver(observer);
+    }
+
+    @Override
+    public void unregisterDataSetObserver(DataSetObserver observer) {
+        mAdapter.unregisterDataSetObserver(observer);
+    }
+
+    @Override
+    public int getCount() {
+        return mAdapter.getCount();
+    }
+
+    @Override
+    public Object getItem(int position) {
+        return mAdapter.getItem(position);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return mAdapter.getItemId(position);
+    }
+
+    @Override
+    public boolean hasStableIds() {
+        return mAdapter.hasStableIds();
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return mAdapter.getItemViewType(position);
+    }
+
+    @Override
+    public int getViewTypeCount() {
+        return mAdapter.getViewTypeCount();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return mAdapter.isEmpty();
+    }
+}
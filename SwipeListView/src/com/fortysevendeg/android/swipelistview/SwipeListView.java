@@ -21,16 +21,28 @@ package com.fortysevendeg.android.swipelistview;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.database.DataSetObserver;
+import android.graphics.Canvas;
+import android.os.Debug;
+import android.os.SystemClock;
 import android.support.v4.view.MotionEventCompat;
-import android.support.v4.view.ViewConfigurationCompat;
+import android.support.v4.view.ViewCompat;
 import android.util.AttributeSet;
 import android.view.MotionEvent;
-import android.view.ViewConfiguration;
+import android.view.View;
 import android.widget.ListAdapter;
 import android.widget.ListView;
 
+import com.fortysevendeg.android.swipelistview.core.ListSnapshot;
+import com.fortysevendeg.android.swipelistview.core.SwipeActionJournal;
+import com.fortysevendeg.android.swipelistview.core.SwipeCheckedItems;
+import com.fortysevendeg.android.swipelistview.core.SwipeMetrics;
+import com.fortysevendeg.android.swipelistview.core.SwipeTouchTrace;
+
 /**
  * ListView subclass that provides the swipe functionality
+ *
+ * Positions taken and reported by the swipe methods and listeners are positions of the
+ * adapter given to setAdapter; header and footer views are not counted.
  */
 public class SwipeListView extends ListView {
 
@@ -79,6 +91,61 @@ public class SwipeListView extends ListView {
      */
     public final static int SWIPE_ACTION_NONE = 3;
 
+    /**
+     * Listener event {@link SwipeListViewListener#onOpened}
+     */
+    public final static int EVENT_OPENED = 1 << 0;
+
+    /**
+     * Listener event {@link SwipeListViewListener#onClosed}
+     */
+    public final static int EVENT_CLOSED = 1 << 1;
+
+    /**
+     * Listener event {@link SwipeListViewListener#onListChanged}
+     */
+    public final static int EVENT_LIST_CHANGED = 1 << 2;
+
+    /**
+     * Listener event {@link SwipeListViewListener#onMove}
+     */
+    public final static int EVENT_MOVE = 1 << 3;
+
+    /**
+     * Listener event {@link SwipeListViewListener#onStartOpen}
+     */
+    public final static int EVENT_START_OPEN = 1 << 4;
+
+    /**
+     * Listener event {@link SwipeListViewListener#onStartClose}
+     */
+    public final static int EVENT_START_CLOSE = 1 << 5;
+
+    /**
+     * Listener event {@link SwipeListViewListener#onClickFrontView}
+     */
+    public final static int EVENT_CLICK_FRONT_VIEW = 1 << 6;
+
+    /**
+     * Listener event {@link SwipeListViewListener#onClickBackView}
+     */
+    public final static int EVENT_CLICK_BACK_VIEW = 1 << 7;
+
+    /**
+     * Listener event {@link SwipeListViewListener#onDismiss}
+     */
+    public final static int EVENT_DISMISS = 1 << 8;
+
+    /**
+     * Listener event {@link SwipeListViewListener#onChangeSwipeMode}
+     */
+    public final static int EVENT_CHANGE_SWIPE_MODE = 1 << 9;
+
+    /**
+     * Every listener event
+     */
+    public final static int EVENT_ALL = (1 << 10) - 1;
+
     /**
      * Default ids for front view
      */
@@ -108,8 +175,39 @@ public class SwipeListView extends ListView {
 
     private float mLastMotionX;
     private float mLastMotionY;
+
+    /**
+     * Slop of the touch listener, the only one used to tell a swipe from a scroll
+     */
     protected int mTouchSlop;
 
+    /**
+     * Event being dispatched to the list once the touch listener has handled it, and the result.
+     * The same event can reach the listener through onInterceptTouchEvent and then through the
+     * list's own touch listener within one dispatchTouchEvent; it is only handled once. Cleared
+     * when the dispatch returns, so a pooled MotionEvent reused for a later event is never
+     * mistaken for it.
+     */
+    private MotionEvent mHandledSwipeEvent;
+    private boolean mHandledSwipeEventResult;
+
+    /**
+     * Recorder of the touch events, null when disabled
+     */
+    private SwipeTouchRecorder mTouchRecorder;
+
+    private boolean mReplayingTouchTrace;
+
+    /**
+     * Installed as the list touch listener, events go through the same single dispatch as intercepts
+     */
+    protected final OnTouchListener mSwipeTouchDispatcher = new OnTouchListener() {
+        @Override
+        public boolean onTouch(View v, MotionEvent event) {
+            return dispatchSwipeTouchEvent(event);
+        }
+    };
+
     int mSwipeFrontView = 0;
     int mSwipeBackView = 0;
 
@@ -118,6 +216,36 @@ public class SwipeListView extends ListView {
      */
     private SwipeListViewListener mSwipeListViewListener;
 
+    /**
+     * Listener for the checked items, kept apart so SwipeListViewListener does not change
+     */
+    private OnCheckedItemsChangedListener mOnCheckedItemsChangedListener;
+
+    /**
+     * Events the listener subscribed to, see EVENT_*
+     */
+    private int mSwipeListViewListenerEvents = EVENT_ALL;
+
+    /**
+     * When set, onMove is delivered once per frame with the last value
+     */
+    private boolean mMoveEventsPerFrame;
+
+    /**
+     * Journal of the committed actions, null when disabled
+     */
+    private SwipeActionJournal mActionJournal;
+
+    private int mPendingMovePosition = INVALID_POSITION;
+    private float mPendingMoveX;
+
+    private final Runnable mPendingMoveRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flushPendingMove();
+        }
+    };
+
     private CloseItemsListener mCloseItemsListener;
 
     /**
@@ -125,6 +253,29 @@ public class SwipeListView extends ListView {
      */
     protected SwipeListViewTouchListener mTouchListener;
 
+    /**
+     * Application adapter, without the wrappers added by the list
+     */
+    private ListAdapter mDataAdapter;
+
+    private final DataSetObserver mDataSetObserver = new DataSetObserver() {
+        @Override
+        public void onChanged() {
+            super.onChanged();
+            onListChanged();
+            mTouchListener.resetItems();
+        }
+    };
+
+    private boolean mDataSetObserverRegistered;
+
+    private final Runnable mSyncOpenedViewsRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mTouchListener.syncOpenedViews();
+        }
+    };
+
 
 	/**
      * If you create a View programmatically you need send back and front identifier
@@ -168,6 +319,9 @@ public class SwipeListView extends ListView {
         long swipeAnimationTime = 0;
         float swipeOffsetLeft = 0;
         float swipeOffsetRight = 0;
+        int swipeFixedRowHeight = 0;
+        int swipeDrawableChecked = 0;
+        int swipeDrawableUnchecked = 0;
 
         int swipeActionLeft = SWIPE_ACTION_REVEAL;
         int swipeActionRight = SWIPE_ACTION_REVEAL;
@@ -184,6 +338,9 @@ public class SwipeListView extends ListView {
             swipeCloseAllItemsWhenMoveList = styled.getBoolean(R.styleable.SwipeListView_swipeCloseAllItemsWhenMoveList, true);
             mSwipeFrontView = styled.getResourceId(R.styleable.SwipeListView_swipeFrontView, 0);
             mSwipeBackView = styled.getResourceId(R.styleable.SwipeListView_swipeBackView, 0);
+            swipeFixedRowHeight = styled.getDimensionPixelSize(R.styleable.SwipeListView_swipeFixedRowHeight, 0);
+            swipeDrawableChecked = styled.getResourceId(R.styleable.SwipeListView_swipeDrawableChecked, 0);
+            swipeDrawableUnchecked = styled.getResourceId(R.styleable.SwipeListView_swipeDrawableUnchecked, 0);
         }
 
         if (mSwipeFrontView == 0 || mSwipeBackView == 0) {
@@ -195,9 +352,8 @@ public class SwipeListView extends ListView {
             }
         }
 
-        final ViewConfiguration configuration = ViewConfiguration.get(getContext());
-        mTouchSlop = ViewConfigurationCompat.getScaledPagingTouchSlop(configuration);
         mTouchListener = new SwipeListViewTouchListener(this, mSwipeFrontView, mSwipeBackView);
+        mTouchSlop = mTouchListener.getSlop();
         if (swipeAnimationTime > 0) {
             mTouchListener.setAnimationTime(swipeAnimationTime);
         }
@@ -208,7 +364,9 @@ public class SwipeListView extends ListView {
         mTouchListener.setSwipeMode(swipeMode);
         mTouchListener.setSwipeClosesAllItemsWhenListMoves(swipeCloseAllItemsWhenMoveList);
         mTouchListener.setSwipeOpenOnLongPress(swipeOpenOnLongPress);
-        setOnTouchListener(mTouchListener);
+        mTouchListener.setFixedRowHeight(swipeFixedRowHeight);
+        mTouchListener.setCheckedDrawables(swipeDrawableChecked, swipeDrawableUnchecked);
+        setOnTouchListener(mSwipeTouchDispatcher);
         setOnScrollListener(mTouchListener.makeScrollListener());
     }
 
@@ -217,26 +375,69 @@ public class SwipeListView extends ListView {
      */
     @Override
     public void setAdapter(ListAdapter adapter) {
-        super.setAdapter(adapter);
+        unregisterDataSetObserver();
+        mDataAdapter = adapter;
+        // Wrapped so every recycled row is rebound to the swipe state of its new position
+        super.setAdapter(adapter != null ? SwipeListAdapterWrapper.wrap(adapter, this) : null);
         mTouchListener.resetItems();
-        adapter.registerDataSetObserver(new DataSetObserver() {
-            @Override
-            public void onChanged() {
-                super.onChanged();
-                onListChanged();
-                mTouchListener.resetItems();
-            }
-        });
+        registerDataSetObserver();
+    }
+
+    /**
+     * Listens to the application adapter while the list is attached to a window
+     */
+    private void registerDataSetObserver() {
+        if (mDataAdapter != null && !mDataSetObserverRegistered) {
+            mDataAdapter.registerDataSetObserver(mDataSetObserver);
+            mDataSetObserverRegistered = true;
+        }
+    }
+
+    private void unregisterDataSetObserver() {
+        if (mDataAdapter != null && mDataSetObserverRegistered) {
+            mDataAdapter.unregisterDataSetObserver(mDataSetObserver);
+            mDataSetObserverRegistered = false;
+        }
+    }
+
+    /**
+     * @see android.widget.ListView#onAttachedToWindow()
+     */
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        if (!mDataSetObserverRegistered && mDataAdapter != null) {
+            registerDataSetObserver();
+            // The data may have changed while the list was detached
+            mTouchListener.resetItems();
+            postSyncOpenedViews();
+        }
+    }
+
+    /**
+     * Releases observers, animations, pending runnables and view references, so a list
+     * that is torn down does not leak or keep animating
+     *
+     * @see android.widget.ListView#onDetachedFromWindow()
+     */
+    @Override
+    protected void onDetachedFromWindow() {
+        unregisterDataSetObserver();
+        removeCallbacks(mSyncOpenedViewsRunnable);
+        removeCallbacks(mPendingMoveRunnable);
+        mPendingMovePosition = INVALID_POSITION;
+        mTouchListener.release();
+        super.onDetachedFromWindow();
     }
 
     /**
      * Open ListView's item
      *
      * @param position Position that you want open
+     * @param toRight  If should be opened toward the right; onOpened is sent when the animation ends
      */
     public void openAnimate(int position, boolean toRight) {
-        mTouchListener.openAnimate(position);
-        mSwipeListViewListener.onOpened(position, toRight);
+        mTouchListener.openAnimate(position, toRight);
     }
 
     /**
@@ -248,13 +449,113 @@ public class SwipeListView extends ListView {
         mTouchListener.closeAnimate(position);
     }
 
+    /**
+     * @param position Position of list
+     * @return true if the item has been checked with SWIPE_ACTION_CHECK or the check methods
+     */
+    public boolean isChecked(int position) {
+        return mTouchListener.isChecked(position);
+    }
+
+    /**
+     * Checks or unchecks an item
+     *
+     * @param position Position of list
+     * @param checked  New state
+     */
+    public void setChecked(int position, boolean checked) {
+        mTouchListener.setChecked(position, checked);
+    }
+
+    /**
+     * Checks or unchecks a range of items. Listeners are notified once for the whole range.
+     *
+     * @param fromPosition First position, inclusive
+     * @param toPosition   Last position, exclusive
+     * @param checked      New state
+     */
+    public void checkRange(int fromPosition, int toPosition, boolean checked) {
+        mTouchListener.setCheckedRange(fromPosition, toPosition, checked);
+    }
+
+    /**
+     * Checks every item
+     */
+    public void checkAll() {
+        mTouchListener.setCheckedRange(0, Integer.MAX_VALUE, true);
+    }
+
+    /**
+     * Unchecks every item
+     */
+    public void uncheckAll() {
+        mTouchListener.setCheckedRange(0, Integer.MAX_VALUE, false);
+    }
+
+    /**
+     * Checks every unchecked item and unchecks every checked item
+     */
+    public void invertChecked() {
+        mTouchListener.invertChecked();
+    }
+
+    /**
+     * @return number of checked items
+     */
+    public int getCheckedCount() {
+        return mTouchListener.getCheckedCount();
+    }
+
+    /**
+     * @return checked positions in ascending order
+     */
+    public int[] getCheckedPositions() {
+        return mTouchListener.getCheckedPositions();
+    }
+
+    /**
+     * Sets the front view backgrounds of checked and unchecked items
+     *
+     * @param swipeDrawableChecked   drawable resource of checked items, 0 to leave the background alone
+     * @param swipeDrawableUnchecked drawable resource of unchecked items, 0 to leave the background alone
+     */
+    public void setCheckedDrawables(int swipeDrawableChecked, int swipeDrawableUnchecked) {
+        mTouchListener.setCheckedDrawables(swipeDrawableChecked, swipeDrawableUnchecked);
+        mTouchListener.syncOpenedViews();
+    }
+
+    /**
+     * @return the adapter given to setAdapter. getAdapter returns the list's own wrapper
+     * (a WrapperListAdapter, Filterable when this adapter is), in a HeaderViewListAdapter
+     * if the list has headers or footers.
+     */
+    public ListAdapter getWrappedAdapter() {
+        return mDataAdapter;
+    }
+
+    /**
+     * Called every time the adapter binds a row to a position
+     *
+     * @param rowView  Row view
+     * @param position Position of the row in the application adapter
+     */
+    void onBindRow(View rowView, int position) {
+        mTouchListener.bindRow(rowView, position);
+    }
+
     /**
      * Notifies onDismiss
      *
      * @param reverseSortedPositions All dismissed positions
      */
     protected void onDismiss(int[] reverseSortedPositions) {
-        if (mSwipeListViewListener != null) {
+        if (mActionJournal != null) {
+            for (int position : reverseSortedPositions) {
+                mActionJournal.append(SwipeActionJournal.ACTION_DISMISS, position, position + 1);
+            }
+        }
+        if (isListening(EVENT_DISMISS)) {
+            flushPendingMove();
             mSwipeListViewListener.onDismiss(reverseSortedPositions);
         }
     }
@@ -266,7 +567,8 @@ public class SwipeListView extends ListView {
      * @param right to right
      */
     protected void onStartOpen(int position, int action, boolean right) {
-        if (mSwipeListViewListener != null) {
+        if (isListening(EVENT_START_OPEN)) {
+            flushPendingMove();
             mSwipeListViewListener.onStartOpen(position, action, right);
         }
     }
@@ -277,7 +579,8 @@ public class SwipeListView extends ListView {
      * @param right
      */
     protected void onStartClose(int position, boolean right) {
-        if (mSwipeListViewListener != null) {
+        if (isListening(EVENT_START_CLOSE)) {
+            flushPendingMove();
             mSwipeListViewListener.onStartClose(position, right);
         }
     }
@@ -288,7 +591,8 @@ public class SwipeListView extends ListView {
      * @param position item clicked
      */
     protected void onClickFrontView(int position) {
-        if (mSwipeListViewListener != null) {
+        if (isListening(EVENT_CLICK_FRONT_VIEW)) {
+            flushPendingMove();
             mSwipeListViewListener.onClickFrontView(position);
         }
     }
@@ -299,7 +603,8 @@ public class SwipeListView extends ListView {
      * @param position back item clicked
      */
     protected void onClickBackView(int position) {
-        if (mSwipeListViewListener != null) {
+        if (isListening(EVENT_CLICK_BACK_VIEW)) {
+            flushPendingMove();
             mSwipeListViewListener.onClickBackView(position);
         }
     }
@@ -311,7 +616,11 @@ public class SwipeListView extends ListView {
      * @param toRight  If should be opened toward the right
      */
     protected void onOpened(int position, boolean toRight) {
-        if (mSwipeListViewListener != null) {
+        if (mActionJournal != null) {
+            mActionJournal.append(SwipeActionJournal.ACTION_OPEN, position, position + 1, toRight);
+        }
+        if (isListening(EVENT_OPENED)) {
+            flushPendingMove();
             mSwipeListViewListener.onOpened(position, toRight);
         }
     }
@@ -323,7 +632,11 @@ public class SwipeListView extends ListView {
      * @param fromRight If open from right
      */
     protected void onClosed(int position, boolean fromRight) {
-        if (mSwipeListViewListener != null) {
+        if (mActionJournal != null) {
+            mActionJournal.append(SwipeActionJournal.ACTION_CLOSE, position, position + 1, fromRight);
+        }
+        if (isListening(EVENT_CLOSED)) {
+            flushPendingMove();
             mSwipeListViewListener.onClosed(position, fromRight);
         }
     }
@@ -332,7 +645,8 @@ public class SwipeListView extends ListView {
      * Notifies onListChanged
      */
     protected void onListChanged() {
-        if (mSwipeListViewListener != null) {
+        if (isListening(EVENT_LIST_CHANGED)) {
+            flushPendingMove();
             mSwipeListViewListener.onListChanged();
         }
     }
@@ -344,13 +658,63 @@ public class SwipeListView extends ListView {
      * @param x        Current position
      */
     protected void onMove(int position, float x) {
-        if (mSwipeListViewListener != null) {
+        if (!isListening(EVENT_MOVE)) {
+            return;
+        }
+        if (!mMoveEventsPerFrame) {
             mSwipeListViewListener.onMove(position, x);
+            return;
+        }
+        if (mPendingMovePosition != position) {
+            flushPendingMove();
+            ViewCompat.postOnAnimation(this, mPendingMoveRunnable);
+        }
+        mPendingMovePosition = position;
+        mPendingMoveX = x;
+    }
+
+    /**
+     * Delivers the onMove waiting for the next frame, so it reaches the listener before any other event
+     */
+    private void flushPendingMove() {
+        if (mPendingMovePosition == INVALID_POSITION) {
+            return;
+        }
+        int position = mPendingMovePosition;
+        mPendingMovePosition = INVALID_POSITION;
+        removeCallbacks(mPendingMoveRunnable);
+        if (isListening(EVENT_MOVE)) {
+            mSwipeListViewListener.onMove(position, mPendingMoveX);
+        }
+    }
+
+    /**
+     * @param event One of EVENT_*
+     * @return true if the listener subscribed to the event
+     */
+    private boolean isListening(int event) {
+        return mSwipeListViewListener != null && (mSwipeListViewListenerEvents & event) != 0;
+    }
+
+    /**
+     * Notifies OnCheckedItemsChangedListener
+     *
+     * @param fromPosition First changed position, inclusive
+     * @param toPosition   Last changed position, exclusive
+     * @param checkedCount Number of checked items
+     */
+    protected void onCheckedItemsChanged(int fromPosition, int toPosition, int checkedCount) {
+        if (mActionJournal != null) {
+            journalCheckedItems(fromPosition, toPosition);
+        }
+        if (mOnCheckedItemsChangedListener != null) {
+            flushPendingMove();
+            mOnCheckedItemsChangedListener.onCheckedItemsChanged(fromPosition, toPosition, checkedCount);
         }
     }
 
     protected int changeSwipeMode(int position) {
-        if (mSwipeListViewListener != null) {
+        if (isListening(EVENT_CHANGE_SWIPE_MODE)) {
             return mSwipeListViewListener.onChangeSwipeMode(position);
         }
         return SWIPE_MODE_DEFAULT;
@@ -362,7 +726,76 @@ public class SwipeListView extends ListView {
      * @param swipeListViewListener Listener
      */
     public void setSwipeListViewListener(SwipeListViewListener swipeListViewListener) {
+        setSwipeListViewListener(swipeListViewListener, EVENT_ALL);
+    }
+
+    /**
+     * Sets the Listener for some events only. Events outside the mask are never dispatched,
+     * and onChangeSwipeMode answers SWIPE_MODE_DEFAULT when it is left out.
+     *
+     * @param swipeListViewListener Listener
+     * @param events                Events to deliver, EVENT_* values combined with |
+     */
+    public void setSwipeListViewListener(SwipeListViewListener swipeListViewListener, int events) {
+        flushPendingMove();
         this.mSwipeListViewListener = swipeListViewListener;
+        this.mSwipeListViewListenerEvents = events;
+    }
+
+    /**
+     * Sets the listener called when items are checked or unchecked
+     *
+     * @param onCheckedItemsChangedListener Listener, null to remove it
+     */
+    public void setOnCheckedItemsChangedListener(OnCheckedItemsChangedListener onCheckedItemsChangedListener) {
+        mOnCheckedItemsChangedListener = onCheckedItemsChangedListener;
+    }
+
+    /**
+     * Journals the dismisses, checks, opens and closes committed on the list. The list updates at
+     * once and the journal writes the actions in groups on its own thread. Set it before the
+     * first action, and close it when it is no longer needed.
+     *
+     * @param actionJournal Journal, null to stop journaling
+     */
+    public void setActionJournal(SwipeActionJournal actionJournal) {
+        mActionJournal = actionJournal;
+    }
+
+    /**
+     * Journals the checked state of a changed range as runs of checked and unchecked items
+     *
+     * @param fromPosition First changed position, inclusive
+     * @param toPosition   Last changed position, exclusive
+     */
+    private void journalCheckedItems(int fromPosition, int toPosition) {
+        SwipeCheckedItems checked = mTouchListener.mChecked;
+        int position = Math.max(fromPosition, 0);
+        while (position < toPosition) {
+            int end;
+            if (checked.get(position)) {
+                end = Math.min(checked.nextUnchecked(position), toPosition);
+                mActionJournal.append(SwipeActionJournal.ACTION_CHECK, position, end);
+            } else {
+                int next = checked.nextChecked(position);
+                end = next < 0 ? toPosition : Math.min(next, toPosition);
+                mActionJournal.append(SwipeActionJournal.ACTION_UNCHECK, position, end);
+            }
+            position = end;
+        }
+    }
+
+    /**
+     * Delivers onMove once per frame with the last position of the row instead of on every
+     * move event. A pending onMove is always delivered before any other listener event.
+     *
+     * @param moveEventsPerFrame true to coalesce onMove
+     */
+    public void setMoveEventsPerFrame(boolean moveEventsPerFrame) {
+        if (!moveEventsPerFrame) {
+            flushPendingMove();
+        }
+        mMoveEventsPerFrame = moveEventsPerFrame;
     }
 
     /**
@@ -408,6 +841,106 @@ public class SwipeListView extends ListView {
         mTouchListener.setSwipeOpenOnLongPress(swipeOpenOnLongPress);
     }
 
+    /**
+     * Sets the height shared by every row. Rows are then hit tested and measured by arithmetic,
+     * and the scroll bar is computed from the exact content height.
+     *
+     * @param fixedRowHeight height in pixels, 0 if rows have different heights
+     */
+    public void setFixedRowHeight(int fixedRowHeight) {
+        mTouchListener.setFixedRowHeight(fixedRowHeight);
+    }
+
+    /**
+     * Enables the latency histograms and work counters of the swipe engine. While disabled
+     * nothing is measured.
+     *
+     * @param metricsEnabled true to record latencies
+     * @see #getMetricsSnapshot()
+     */
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        if (!metricsEnabled) {
+            mTouchListener.setMetrics(null);
+        } else if (mTouchListener.getMetrics() == null) {
+            mTouchListener.setMetrics(new SwipeMetrics());
+        }
+    }
+
+    /**
+     * @return copy of the latency histograms recorded so far, null if metrics are disabled
+     */
+    public SwipeMetrics getMetricsSnapshot() {
+        SwipeMetrics metrics = mTouchListener.getMetrics();
+        return metrics != null ? metrics.snapshot() : null;
+    }
+
+    /**
+     * Drops the latencies and counters recorded so far, so a test can measure a single
+     * interaction. Does nothing while metrics are disabled.
+     */
+    public void resetMetrics() {
+        SwipeMetrics metrics = mTouchListener.getMetrics();
+        if (metrics != null) {
+            metrics.reset();
+        }
+    }
+
+    /**
+     * Enables touch prediction. Dragged rows are moved to where the finger is expected to be
+     * when the frame is shown; the prediction is clamped to the touch slop and switched off
+     * while the finger changes direction.
+     *
+     * @param touchPrediction true to enable the prediction
+     */
+    public void setTouchPrediction(boolean touchPrediction) {
+        mTouchListener.setTouchPrediction(touchPrediction);
+    }
+
+    /**
+     * @return mean absolute error of the touch prediction in pixels, -1 if it is disabled or has not predicted yet
+     * @see #getTouchPredictionBaselineError()
+     */
+    public float getTouchPredictionError() {
+        return mTouchListener.getTouchPredictionError();
+    }
+
+    /**
+     * @return mean absolute error in pixels of drawing the last touch position, for comparison
+     * with {@link #getTouchPredictionError()}
+     */
+    public float getTouchPredictionBaselineError() {
+        return mTouchListener.getTouchPredictionBaselineError();
+    }
+
+    /**
+     * Enables the predictive dismiss. The rows below a dismissed row start closing the gap
+     * while it fades out, and a swipe that will certainly dismiss is committed before the
+     * finger lifts.
+     *
+     * @param predictiveDismiss true to enable the predictive dismiss
+     */
+    public void setPredictiveDismiss(boolean predictiveDismiss) {
+        mTouchListener.setPredictiveDismiss(predictiveDismiss);
+    }
+
+    /**
+     * Lets a touch start a swipe before it reaches the touch slop when its direction is clearly
+     * horizontal. Touches that move past the slop faster horizontally than vertically always swipe.
+     *
+     * @param distanceRatio Fraction of the slop the touch has to move, 1 or more disables the early commit
+     * @param maxAngle      Maximum angle from the horizontal axis, in degrees
+     */
+    public void setSwipeEarlyCommit(float distanceRatio, float maxAngle) {
+        mTouchListener.setSwipeEarlyCommit(distanceRatio, maxAngle);
+    }
+
+    /**
+     * @return time in milliseconds between touching a row and the start of the last swipe, -1 if there was none
+     */
+    public long getLastSwipeStartLatency() {
+        return mTouchListener.getLastSwipeStartLatency();
+    }
+
     /**
      * Set swipe mode
      *
@@ -462,6 +995,179 @@ public class SwipeListView extends ListView {
         mTouchListener.setAnimationTime(animationTime);
     }
 
+    /**
+     * Records the touch events received by the list, to reproduce a swipe later with
+     * {@link #replayTouchTrace(SwipeTouchTrace)}
+     *
+     * @param capacity Number of events kept, older events are dropped; 0 stops recording.
+     *                 At most SwipeTouchTrace.MAX_SIZE.
+     * @see #getTouchTrace()
+     */
+    public void setTouchRecording(int capacity) {
+        if (capacity > SwipeTouchTrace.MAX_SIZE) {
+            throw new IllegalArgumentException("Touch recording capacity above " + SwipeTouchTrace.MAX_SIZE);
+        }
+        mTouchRecorder = capacity > 0 ? new SwipeTouchRecorder(capacity) : null;
+    }
+
+    /**
+     * Forgets the recorded touch events and keeps recording, so a trace can start with the
+     * gesture of interest
+     */
+    public void clearTouchTrace() {
+        if (mTouchRecorder != null) {
+            mTouchRecorder.clear();
+        }
+    }
+
+    /**
+     * @return copy of the recorded touch events, which can be saved with SwipeTouchTrace.writeTo; null if recording is disabled
+     */
+    public SwipeTouchTrace getTouchTrace() {
+        return mTouchRecorder != null ? mTouchRecorder.toTrace() : null;
+    }
+
+    /**
+     * Feeds a recorded trace to the list synchronously, as if the events were being received now.
+     * Coordinates are translated to where the list is on screen and times keep their original
+     * spacing. Secondary pointers are not replayed. Listener callbacks are delivered as usual, so
+     * a test can check them once the animations have run.
+     *
+     * @param trace Trace to replay
+     * @return time spent by the list on each event, in nanoseconds; 0 for skipped events
+     */
+    public long[] replayTouchTrace(SwipeTouchTrace trace) {
+        long[] processingNanos = new long[trace.size()];
+        if (trace.size() == 0) {
+            return processingNanos;
+        }
+        int[] location = new int[2];
+        getLocationOnScreen(location);
+        long timeOffset = SystemClock.uptimeMillis() - trace.getEventTime(0);
+        long downTime = -1;
+        mReplayingTouchTrace = true;
+        try {
+            for (int i = 0; i < trace.size(); i++) {
+                int action = trace.getAction(i);
+                long eventTime = trace.getEventTime(i) + timeOffset;
+                if (action == MotionEvent.ACTION_DOWN) {
+                    downTime = eventTime;
+                }
+                if (downTime < 0 || action > MotionEvent.ACTION_CANCEL) {
+                    continue;
+                }
+                MotionEvent event = MotionEvent.obtain(downTime, eventTime, action,
+                        trace.getRawX(i) - location[0], trace.getRawY(i) - location[1], 0);
+                long start = System.nanoTime();
+                dispatchTouchEvent(event);
+                processingNanos[i] = System.nanoTime() - start;
+                event.recycle();
+                if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+                    downTime = -1;
+                }
+            }
+        } finally {
+            mReplayingTouchTrace = false;
+        }
+        return processingNanos;
+    }
+
+    /**
+     * Enables the frame monitor, which counts the frames dropped while reveal, check, dismiss and
+     * refresh animations run. While disabled nothing is posted.
+     *
+     * @param frameMonitorEnabled true to measure frames
+     * @see #getFrameMonitor()
+     */
+    public void setFrameMonitorEnabled(boolean frameMonitorEnabled) {
+        if (!frameMonitorEnabled) {
+            mTouchListener.setFrameMonitor(null);
+        } else if (mTouchListener.getFrameMonitor() == null) {
+            mTouchListener.setFrameMonitor(new SwipeFrameMonitor(this));
+        }
+    }
+
+    /**
+     * @return frame monitor, to read its counters or set a FrameDropListener; null if it is disabled
+     */
+    public SwipeFrameMonitor getFrameMonitor() {
+        return mTouchListener.getFrameMonitor();
+    }
+
+    /**
+     * Counts layout requests when metrics are enabled
+     *
+     * @see android.view.View#requestLayout()
+     */
+    @Override
+    public void requestLayout() {
+        super.requestLayout();
+        // Called from the ListView constructor, before the touch listener exists
+        SwipeMetrics metrics = mTouchListener != null ? mTouchListener.getMetrics() : null;
+        if (metrics != null) {
+            metrics.increment(SwipeMetrics.COUNTER_LAYOUT_REQUESTS);
+        }
+    }
+
+    /**
+     * Counts layout passes when metrics are enabled
+     *
+     * @see android.widget.ListView#layoutChildren()
+     */
+    @Override
+    protected void layoutChildren() {
+        super.layoutChildren();
+        SwipeMetrics metrics = mTouchListener != null ? mTouchListener.getMetrics() : null;
+        if (metrics != null) {
+            metrics.increment(SwipeMetrics.COUNTER_LAYOUT_PASSES);
+        }
+    }
+
+    /**
+     * Records the first frame of a swipe when metrics are enabled
+     *
+     * @see android.widget.ListView#dispatchDraw(android.graphics.Canvas)
+     */
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        super.dispatchDraw(canvas);
+        SwipeMetrics metrics = mTouchListener.getMetrics();
+        if (metrics != null) {
+            metrics.onFrameDrawn(SystemClock.uptimeMillis());
+        }
+    }
+
+    /**
+     * With a fixed row height the scroll bar uses exact pixel values
+     *
+     * @see android.widget.ListView#computeVerticalScrollOffset()
+     */
+    @Override
+    protected int computeVerticalScrollOffset() {
+        int offset = mTouchListener.getPositionMapper().computeScrollOffset();
+        return offset >= 0 ? offset : super.computeVerticalScrollOffset();
+    }
+
+    /**
+     * @see android.widget.ListView#computeVerticalScrollRange()
+     */
+    @Override
+    protected int computeVerticalScrollRange() {
+        int range = mTouchListener.getPositionMapper().computeScrollRange();
+        return range >= 0 ? range : super.computeVerticalScrollRange();
+    }
+
+    /**
+     * @see android.widget.ListView#computeVerticalScrollExtent()
+     */
+    @Override
+    protected int computeVerticalScrollExtent() {
+        if (mTouchListener.getPositionMapper().computeScrollOffset() >= 0) {
+            return getHeight();
+        }
+        return super.computeVerticalScrollExtent();
+    }
+
     /**
      * @see android.widget.ListView#onInterceptTouchEvent(android.view.MotionEvent)
      */
@@ -473,25 +1179,25 @@ public class SwipeListView extends ListView {
 
 		if(isEnabled() && mTouchListener.isSwipeEnabled()) {
 
-			if (mTouchState == TOUCH_STATE_SCROLLING_X) {
-				return mTouchListener.onTouch(this, ev);
+			if (action == MotionEvent.ACTION_DOWN) {
+				mTouchState = TOUCH_STATE_REST;
+				mLastMotionX = x;
+				mLastMotionY = y;
+			} else if (action == MotionEvent.ACTION_MOVE && mTouchState != TOUCH_STATE_SCROLLING_X) {
+				checkInMoving(x, y);
 			}
 
+			boolean swiping = dispatchSwipeTouchEvent(ev);
+
 			switch (action) {
 				case MotionEvent.ACTION_MOVE:
-					checkInMoving(x, y);
-					return mTouchState == TOUCH_STATE_SCROLLING_Y;
+					return swiping || mTouchState == TOUCH_STATE_SCROLLING_Y;
 				case MotionEvent.ACTION_DOWN:
-					mTouchListener.onTouch(this, ev);
-					mTouchState = TOUCH_STATE_REST;
-					mLastMotionX = x;
-					mLastMotionY = y;
 					return false;
 				case MotionEvent.ACTION_CANCEL:
 					mTouchState = TOUCH_STATE_REST;
 					break;
 				case MotionEvent.ACTION_UP:
-					mTouchListener.onTouch(this, ev);
 					return mTouchState == TOUCH_STATE_SCROLLING_Y;
 				default:
 					break;
@@ -501,6 +1207,43 @@ public class SwipeListView extends ListView {
         return super.onInterceptTouchEvent(ev);
     }
 
+    /**
+     * @see android.view.ViewGroup#dispatchTouchEvent(android.view.MotionEvent)
+     */
+    @Override
+    public boolean dispatchTouchEvent(MotionEvent ev) {
+        try {
+            return super.dispatchTouchEvent(ev);
+        } finally {
+            mHandledSwipeEvent = null;
+        }
+    }
+
+    /**
+     * Hands an event to the touch listener unless it has already been handled in this dispatch
+     *
+     * @param ev Touch event
+     * @return result of the touch listener for the event
+     */
+    private boolean dispatchSwipeTouchEvent(MotionEvent ev) {
+        if (ev == mHandledSwipeEvent) {
+            return mHandledSwipeEventResult;
+        }
+        mHandledSwipeEvent = ev;
+        if (mTouchRecorder != null && !mReplayingTouchTrace) {
+            mTouchRecorder.record(ev);
+        }
+        SwipeMetrics metrics = mTouchListener.getMetrics();
+        if (metrics != null && ev.getAction() == MotionEvent.ACTION_MOVE) {
+            int allocations = Debug.getThreadAllocCount();
+            mHandledSwipeEventResult = mTouchListener.onTouch(this, ev);
+            metrics.onMoveEvent(Debug.getThreadAllocCount() - allocations);
+        } else {
+            mHandledSwipeEventResult = mTouchListener.onTouch(this, ev);
+        }
+        return mHandledSwipeEventResult;
+    }
+
     /**
      * Check if the user is moving the cell
      *
@@ -534,6 +1277,32 @@ public class SwipeListView extends ListView {
     public void closeOpenedItems() {
         mTouchListener.closeOpenedItems();
     }
+
+    /**
+     * Close all opened items. Visible items are animated at once and off-screen items are
+     * closed over the next frames, without using more than the batch frame budget per frame.
+     *
+     * @param listener Listener notified of progress and completion
+     */
+    public void closeOpenedItems(BatchOperationListener listener) {
+        mTouchListener.closeOpenedItems(listener);
+    }
+
+    /**
+     * Sets the time bulk operations may spend on the main thread in one frame
+     *
+     * @param frameBudgetMillis Budget in milliseconds
+     */
+    public void setBatchFrameBudget(long frameBudgetMillis) {
+        mTouchListener.setBatchFrameBudget(frameBudgetMillis * 1000000L);
+    }
+
+    /**
+     * @return true while a bulk operation still has items to process
+     */
+    public boolean isBatchRunning() {
+        return mTouchListener.isBatchRunning();
+    }
     
     public SwipeListViewTouchListener getOnScrollListener(){
     	return mTouchListener;
@@ -553,6 +1322,96 @@ public class SwipeListView extends ListView {
         }
     }
 
+    /**
+     * Creates a snapshot of the displayed list including the swipe state of every row
+     *
+     * @param keys   Stable key of each adapter position
+     * @param labels Label of each adapter position
+     * @return snapshot that can be written to disk
+     */
+    public ListSnapshot createSnapshot(String[] keys, String[] labels) {
+        int[] states = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            if (mTouchListener.isOpened(i)) {
+                states[i] = ListSnapshot.STATE_OPENED;
+                if (mTouchListener.isOpenedRight(i)) {
+                    states[i] |= ListSnapshot.STATE_OPENED_RIGHT;
+                }
+            }
+            if (mTouchListener.isChecked(i)) {
+                states[i] |= ListSnapshot.STATE_CHECKED;
+            }
+        }
+        return new ListSnapshot(keys, labels, states);
+    }
+
+    /**
+     * Restores the swipe state saved in a snapshot. Call it once the adapter holds the
+     * snapshot rows; visible rows are moved into place after the next layout.
+     *
+     * @param snapshot Snapshot read at startup
+     */
+    public void restoreSwipeState(ListSnapshot snapshot) {
+        for (int i = 0; i < snapshot.getCount(); i++) {
+            int state = snapshot.getState(i);
+            mTouchListener.setOpened(i, (state & ListSnapshot.STATE_OPENED) != 0,
+                    (state & ListSnapshot.STATE_OPENED_RIGHT) != 0);
+            mTouchListener.mChecked.set(i, (state & ListSnapshot.STATE_CHECKED) != 0);
+        }
+        postSyncOpenedViews();
+    }
+
+    /**
+     * Keeps the swipe state of every row when the adapter data is replaced by a new list.
+     * Call it before notifying the adapter.
+     *
+     * @param oldPositions For each new position, the previous position of the row or -1 if it is new
+     * @see ListSnapshot#mapPositions(String[], String[])
+     */
+    public void remapSwipeState(int[] oldPositions) {
+        mTouchListener.remapItems(oldPositions);
+        postSyncOpenedViews();
+    }
+
+    /**
+     * Adds a closed row before the adapter is notified of a single insertion
+     *
+     * @param position Position of the inserted row
+     */
+    public void insertSwipeState(int position) {
+        mTouchListener.insertItem(position);
+        postSyncOpenedViews();
+    }
+
+    /**
+     * Drops the swipe state of a row before the adapter is notified of a single removal
+     *
+     * @param position Position of the removed row
+     */
+    public void removeSwipeState(int position) {
+        mTouchListener.removeItem(position);
+        postSyncOpenedViews();
+    }
+
+    /**
+     * Moves the swipe state of a row before the adapter is notified that the row moved
+     *
+     * @param from Current position of the row
+     * @param to   New position of the row, counted once the row has been taken out
+     */
+    public void moveSwipeState(int from, int to) {
+        mTouchListener.moveItem(from, to);
+        postSyncOpenedViews();
+    }
+
+    /**
+     * Moves the visible front views to their opened state once the list has been laid out
+     */
+    private void postSyncOpenedViews() {
+        removeCallbacks(mSyncOpenedViewsRunnable);
+        post(mSyncOpenedViewsRunnable);
+    }
+
     public boolean isListAtTop() {
         return getChildCount() == 0 || getChildAt(0).getTop() == 0;
     }
@@ -77,7 +77,8 @@ public interface SwipeListViewListener {
     void onClickBackView(int position);
 
     /**
-     * Called when user dismisses items
+     * Called when user dismisses items. The swipe state of the items has already been removed,
+     * the listener has to remove them from the adapter before returning.
      * @param reverseSortedPositions Items dismissed
      */
     void onDismiss(int[] reverseSortedPositions);
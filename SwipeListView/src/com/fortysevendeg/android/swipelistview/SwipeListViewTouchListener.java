@@ -20,17 +20,22 @@
 
 package com.fortysevendeg.android.swipelistview;
 
-import android.graphics.Rect;
-import android.os.Handler;
+import android.os.SystemClock;
 import android.support.v4.view.MotionEventCompat;
 import android.view.MotionEvent;
 import android.view.VelocityTracker;
 import android.view.View;
 import android.view.ViewConfiguration;
 import android.view.ViewGroup;
+import android.view.ViewStub;
 import android.widget.AbsListView;
 import android.widget.ListView;
 
+import com.fortysevendeg.android.swipelistview.core.SwipeCheckedItems;
+import com.fortysevendeg.android.swipelistview.core.SwipeIntentDetector;
+import com.fortysevendeg.android.swipelistview.core.SwipeMetrics;
+import com.fortysevendeg.android.swipelistview.core.SwipeTouchPredictor;
+
 import com.nineoldandroids.animation.Animator;
 import com.nineoldandroids.animation.AnimatorListenerAdapter;
 import com.nineoldandroids.animation.ValueAnimator;
@@ -55,7 +60,9 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
 	protected int mSwipeFrontView = 0;
 	protected int mSwipeBackView = 0;
 
-	protected Rect mRect = new Rect();
+	private int mSwipeDrawableChecked = 0;
+	private int mSwipeDrawableUnchecked = 0;
+
 
 	// Cached ViewConfiguration and system-wide constant values
     protected int mSlop;
@@ -68,16 +75,56 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
 
 	// Fixed properties
 	protected SwipeListView mSwipeListView;
+	protected SwipePositionMapper mPositionMapper;
+	protected SwipeBatchScheduler mBatchScheduler;
 	protected int mViewWidth = 1; // 1 and not 0 to prevent dividing by zero
 
 	private List<PendingDismissData> mPendingDismisses = new ArrayList<PendingDismissData>();
 	private int mDismissAnimationRefCount = 0;
 
+	/**
+	 * Rows sliding out before being dismissed, and the running collapse animations
+	 */
+	private List<View> mDismissingViews = new ArrayList<View>();
+	private List<ValueAnimator> mDismissAnimators = new ArrayList<ValueAnimator>();
+
+	/**
+	 * Minimum fling velocity, as a multiple of the system one, for a dismiss to be certain before the finger lifts
+	 */
+	private final static int PREDICTIVE_DISMISS_FLING_FACTOR = 4;
+
+	private boolean mPredictiveDismiss = false;
+
+	/**
+	 * Set once a dismiss has been committed while the finger is still down; the rest of the gesture is consumed
+	 */
+	private boolean mDismissCommitted;
+
 	protected float mDownX;
+	protected float mDownY;
+	protected long mDownTime;
+	private long mSwipeStartLatency = -1;
+	private SwipeIntentDetector mIntentDetector;
+	private SwipeTouchPredictor mTouchPredictor;
+
+	/**
+	 * Latency metrics, null when disabled
+	 */
+	private SwipeMetrics mMetrics;
+
+	/**
+	 * Time the last gesture ended, consumed by the animation that follows it
+	 */
+	private long mGestureEndTime = -1;
+
+	/**
+	 * Frame monitor for the animations, null when disabled
+	 */
+	private SwipeFrameMonitor mFrameMonitor;
 	protected boolean mSwiping;
 	protected VelocityTracker mVelocityTracker;
 	protected int mDownPosition;
-	private View mParentView;
+	protected View mParentView;
 	protected View mFrontView;
 	protected boolean mPaused;
 
@@ -86,8 +133,33 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
 	protected int mSwipeActionLeft = SwipeListView.SWIPE_ACTION_REVEAL;
 	protected int mSwipeActionRight = SwipeListView.SWIPE_ACTION_REVEAL;
 
+	/**
+	 * Front views with a reveal animation running
+	 */
+	private List<View> mAnimatingViews = new ArrayList<View>();
+
+	/**
+	 * Pending close of the off-screen items, null when there is none
+	 */
+	private SwipeBatchScheduler.Batch mCloseBatch;
+
+	/**
+	 * Enables swipes again a while after the list stops scrolling
+	 */
+	private final Runnable mEnableRunnable = new Runnable() {
+		@Override
+		public void run() {
+			setEnabled(true);
+		}
+	};
+
 	protected List<Boolean> mOpened = new ArrayList<Boolean>();
+	/**
+	 * Number of true values in mOpened, so closing everything costs nothing when nothing is open
+	 */
+	private int mOpenedCount = 0;
 	protected List<Boolean> mOpenedRight = new ArrayList<Boolean>();
+	protected SwipeCheckedItems mChecked = new SwipeCheckedItems();
 	protected boolean mListViewMoving;
 
 	/**
@@ -100,11 +172,15 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
         mSwipeFrontView = swipeFrontView;
         mSwipeBackView = swipeBackView;
 		ViewConfiguration vc = ViewConfiguration.get(swipeListView.getContext());
+		// The only slop of the list, SwipeListView reads it to tell a swipe from a scroll
 		mSlop = vc.getScaledTouchSlop();
+		mIntentDetector = new SwipeIntentDetector(mSlop);
 		mMinFlingVelocity = vc.getScaledMinimumFlingVelocity();
 		mMaxFlingVelocity = vc.getScaledMaximumFlingVelocity();
         mAnimationTime = swipeListView.getContext().getResources().getInteger(android.R.integer.config_shortAnimTime);
 		this.mSwipeListView = swipeListView;
+		mPositionMapper = new SwipePositionMapper(swipeListView);
+		mBatchScheduler = new SwipeBatchScheduler(swipeListView);
 	}
 
 	/**
@@ -116,42 +192,79 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
 	}
 
 	protected boolean allItemsClosed(){
-        for (Boolean anOpened : mOpened) {
-            if (anOpened) {
-                return false;
-            }
-        }
-		return true;
+		return mOpenedCount == 0;
+	}
+
+	/**
+	 * Stores the opened state of an item, which must exist, and keeps the opened count
+	 * @param position Position of list
+	 * @param opened If the item is opened
+	 */
+	private void putOpened(int position, boolean opened) {
+		if (mOpened.set(position, opened) != opened) {
+			mOpenedCount += opened ? 1 : -1;
+		}
+	}
+
+	/**
+	 * Notifies the CloseItemsListener once every item is closed and no close is pending
+	 */
+	private void notifyIfAllItemsClosed() {
+		if (mCloseBatch == null && mSwipeListView.getCloseItemsListener() != null && allItemsClosed()) {
+			mSwipeListView.getCloseItemsListener().onAllItemsClosed();
+		}
 	}
 
+	/**
+	 * Click listener shared by every front view
+	 */
+	private final View.OnClickListener mFrontViewClickListener = new View.OnClickListener() {
+		@Override
+		public void onClick(View v) {
+			if (mDownPosition == ListView.INVALID_POSITION) {
+				return;
+			}
+			mSwipeListView.onClickFrontView(mDownPosition);
+		}
+	};
+
+	/**
+	 * Long click listener shared by every front view
+	 */
+	private final View.OnLongClickListener mFrontViewLongClickListener = new View.OnLongClickListener() {
+		@Override
+		public boolean onLongClick(View v) {
+			openAnimate(mDownPosition);
+			return false;
+		}
+	};
+
+	/**
+	 * Click listener shared by every back view
+	 */
+	private final View.OnClickListener mBackViewClickListener = new View.OnClickListener() {
+		@Override
+		public void onClick(View v) {
+			mSwipeListView.onClickBackView(mDownPosition);
+		}
+	};
+
 	/**
 	 * Sets current item's front view
 	 * @param frontView Front view
 	 */
     protected void setFrontView(View frontView) {
 		mFrontView = frontView;
-		frontView.setOnClickListener(new View.OnClickListener() {
-			@Override
-			public void onClick(View v) {
-				if (mDownPosition == ListView.INVALID_POSITION) {
-					return;
-				}
-				mSwipeListView.onClickFrontView(mDownPosition);
-			}
-		});
+		frontView.setOnClickListener(mFrontViewClickListener);
 		if (mSwipeOpenOnLongPress) {
-			frontView.setOnLongClickListener(new View.OnLongClickListener() {
-				@Override
-				public boolean onLongClick(View v) {
-					openAnimate(mDownPosition);
-					return false;
-				}
-			});
+			frontView.setOnLongClickListener(mFrontViewLongClickListener);
 		}
 	}
 
     public void resetOpened() {
+        cancelCloseBatch();
         mOpened = new ArrayList<Boolean>();
+        mOpenedCount = 0;
     }
 
 	/**
@@ -159,12 +272,77 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
 	 * @param backView
 	 */
     protected void setBackView(View backView) {
-		backView.setOnClickListener(new View.OnClickListener() {
-			@Override
-			public void onClick(View v) {
-				mSwipeListView.onClickBackView(mDownPosition);
+		backView.setOnClickListener(mBackViewClickListener);
+	}
+
+	/**
+	 * Returns the front view of a row, cached in the row's holder when the adapter is a SwipeAdapter
+	 * @param rowView Row view
+	 * @return front view, or null if the row has none
+	 */
+	protected View getFrontView(View rowView) {
+		SwipeAdapter.ViewHolder holder = SwipeAdapter.getViewHolder(rowView);
+		if (holder == null) {
+			return rowView.findViewById(mSwipeFrontView);
+		}
+		holder.resolveSwipeViews(mSwipeFrontView, mSwipeBackView);
+		return holder.getFrontView();
+	}
+
+	/**
+	 * Returns the back view of a row, cached in the row's holder when the adapter is a SwipeAdapter.
+	 * A back view declared as a ViewStub is inflated here, the first time the row is touched or opened;
+	 * the stub must use the back view identifier as android:inflatedId.
+	 * @param rowView Row view
+	 * @return back view, or null if the row has none
+	 */
+	protected View getBackView(View rowView) {
+		SwipeAdapter.ViewHolder holder = SwipeAdapter.getViewHolder(rowView);
+		if (holder == null) {
+			View backView = mSwipeBackView > 0 ? rowView.findViewById(mSwipeBackView) : null;
+			if (backView instanceof ViewStub) {
+				backView = ((ViewStub) backView).inflate();
 			}
-		});
+			return backView;
+		}
+		holder.resolveSwipeViews(mSwipeFrontView, mSwipeBackView);
+		return holder.inflateBackView();
+	}
+
+	/**
+	 * Shows or hides the back view of a row. Closed rows keep their back view invisible so it
+	 * is not drawn under the front view; a back view still declared as a ViewStub is only
+	 * inflated to be shown.
+	 * @param rowView Row view
+	 * @param visible If the back view should be drawn
+	 */
+	protected void setBackViewVisible(View rowView, boolean visible) {
+		View backView;
+		if (visible) {
+			backView = getBackView(rowView);
+		} else {
+			SwipeAdapter.ViewHolder holder = SwipeAdapter.getViewHolder(rowView);
+			if (holder != null) {
+				holder.resolveSwipeViews(mSwipeFrontView, mSwipeBackView);
+				backView = holder.getBackView();
+			} else {
+				backView = mSwipeBackView > 0 ? rowView.findViewById(mSwipeBackView) : null;
+			}
+		}
+		if (backView != null && !(backView instanceof ViewStub)) {
+			backView.setVisibility(visible ? View.VISIBLE : View.INVISIBLE);
+		}
+	}
+
+	/**
+	 * Hides the back view of an item once it is closed, if the item is on screen
+	 * @param position Position of list
+	 */
+	private void hideBackViewIfClosed(int position) {
+		View child = mPositionMapper.getChildAt(position);
+		if (!isOpened(position) && child != null) {
+			setBackViewVisible(child, false);
+		}
 	}
 
 	/**
@@ -219,6 +397,138 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
 		mSwipeOpenOnLongPress = swipeOpenOnLongPress;
 	}
 
+	/**
+	 * Sets the front view backgrounds used for checked and unchecked items
+	 *
+	 * @param swipeDrawableChecked drawable resource of checked items, 0 to leave the background alone
+	 * @param swipeDrawableUnchecked drawable resource of unchecked items, 0 to leave the background alone
+	 */
+	public void setCheckedDrawables(int swipeDrawableChecked, int swipeDrawableUnchecked) {
+		mSwipeDrawableChecked = swipeDrawableChecked;
+		mSwipeDrawableUnchecked = swipeDrawableUnchecked;
+	}
+
+	/**
+	 * @return distance in pixels a touch has to move before it is a swipe or a scroll
+	 */
+	public int getSlop() {
+		return mSlop;
+	}
+
+	/**
+	 * Dismisses start collapsing the row while it fades out, and a swipe that will certainly
+	 * dismiss is committed before the finger lifts
+	 *
+	 * @param predictiveDismiss true to enable the predictive dismiss
+	 */
+	public void setPredictiveDismiss(boolean predictiveDismiss) {
+		mPredictiveDismiss = predictiveDismiss;
+	}
+
+	/**
+	 * Moves dragged rows to where the finger is predicted to be when the frame is shown,
+	 * instead of where it was when the event was read
+	 *
+	 * @param touchPrediction true to enable the prediction
+	 */
+	public void setTouchPrediction(boolean touchPrediction) {
+		if (!touchPrediction) {
+			mTouchPredictor = null;
+		} else if (mTouchPredictor == null) {
+			mTouchPredictor = new SwipeTouchPredictor();
+			mTouchPredictor.setMaxOffset(mSlop);
+		}
+	}
+
+	/**
+	 * @return mean absolute error of the touch prediction in pixels, -1 if it is disabled or has not predicted yet
+	 */
+	public float getTouchPredictionError() {
+		return mTouchPredictor != null ? mTouchPredictor.getMeanError() : -1;
+	}
+
+	/**
+	 * @return mean absolute error in pixels the drag would have without prediction, -1 if prediction is disabled or has not predicted yet
+	 */
+	public float getTouchPredictionBaselineError() {
+		return mTouchPredictor != null ? mTouchPredictor.getMeanBaselineError() : -1;
+	}
+
+	/**
+	 * @param metrics Histograms that record the latencies of the swipe engine, null to disable them
+	 */
+	public void setMetrics(SwipeMetrics metrics) {
+		mMetrics = metrics;
+	}
+
+	/**
+	 * @return latency metrics, null when disabled
+	 */
+	public SwipeMetrics getMetrics() {
+		return mMetrics;
+	}
+
+	/**
+	 * @param frameMonitor Monitor that measures the frames of the animations, null to disable it
+	 */
+	public void setFrameMonitor(SwipeFrameMonitor frameMonitor) {
+		if (mFrameMonitor != null) {
+			mFrameMonitor.stopAll();
+		}
+		mFrameMonitor = frameMonitor;
+	}
+
+	/**
+	 * @return frame monitor, null when disabled
+	 */
+	public SwipeFrameMonitor getFrameMonitor() {
+		return mFrameMonitor;
+	}
+
+	/**
+	 * Watches the frames of an animation that is starting, if the frame monitor is enabled
+	 * @param animation One of SwipeFrameMonitor.ANIMATION_*
+	 * @param position Position of list
+	 */
+	private void watchFrames(int animation, int position) {
+		if (mFrameMonitor != null) {
+			mFrameMonitor.watch(animation, position, mAnimationTime);
+		}
+	}
+
+	/**
+	 * Lets a touch start a swipe before it reaches the slop when its direction is clearly horizontal
+	 *
+	 * @param distanceRatio Fraction of the slop the touch has to move, 1 or more disables the early commit
+	 * @param maxAngle Maximum angle from the horizontal axis, in degrees
+	 */
+	public void setSwipeEarlyCommit(float distanceRatio, float maxAngle) {
+		mIntentDetector.setEarlyCommit(distanceRatio, maxAngle);
+	}
+
+	/**
+	 * @return time in milliseconds between the down event and the start of the last swipe, -1 if there was none
+	 */
+	public long getLastSwipeStartLatency() {
+		return mSwipeStartLatency;
+	}
+
+	/**
+	 * Sets the height shared by every row, used to hit test and measure rows without reading them
+	 *
+	 * @param fixedRowHeight height in pixels, 0 if rows have different heights
+	 */
+	public void setFixedRowHeight(int fixedRowHeight) {
+		mPositionMapper.setFixedRowHeight(fixedRowHeight);
+	}
+
+	/**
+	 * @return helper mapping list, data and child positions
+	 */
+	SwipePositionMapper getPositionMapper() {
+		return mPositionMapper;
+	}
+
 	/**
 	 * Sets the swipe mode
 	 *
@@ -274,44 +584,345 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
 	}
 
 	/**
-	 * Adds new items when adapter is modified
+	 * Sizes the item state to the adapter when it is modified: new items are added closed and
+	 * the state of items past the end is dropped, so a list that shrank does not keep it
 	 */
 	public void resetItems() {
-		if (mSwipeListView.getAdapter() != null) {
-			int count = mSwipeListView.getAdapter().getCount();
-			for (int i = mOpened.size(); i <= count; i++) {
-                mOpened.add(false);
-				mOpenedRight.add(false);
+		if (mPositionMapper.getDataAdapter() != null) {
+			int count = mPositionMapper.getDataCount();
+			ensureItems(count);
+			trimItems(count);
+			mChecked.setSize(count);
+		}
+	}
+
+	/**
+	 * Drops the state of the items at or after a position
+	 * @param count Number of items kept
+	 */
+	private void trimItems(int count) {
+		while (mOpened.size() > count) {
+			if (mOpened.remove(mOpened.size() - 1)) {
+				mOpenedCount--;
 			}
 		}
+		while (mOpenedRight.size() > count) {
+			mOpenedRight.remove(mOpenedRight.size() - 1);
+		}
 	}
 
 	/**
-	 * Open item
+	 * @param position Position of list
+	 * @return true if the item is opened
+	 */
+	public boolean isOpened(int position) {
+		return position >= 0 && position < mOpened.size() && mOpened.get(position);
+	}
+
+	/**
+	 * @param position Position of list
+	 * @return true if the item is opened toward the right
+	 */
+	public boolean isOpenedRight(int position) {
+		return position >= 0 && position < mOpenedRight.size() && mOpenedRight.get(position);
+	}
+
+	/**
+	 * Changes the opened state of an item without animating it
+	 * @param position Position of list
+	 * @param opened If the item is opened
+	 * @param right If the item is opened toward the right
+	 */
+	protected void setOpened(int position, boolean opened, boolean right) {
+		ensureItems(position + 1);
+		putOpened(position, opened);
+		mOpenedRight.set(position, right);
+	}
+
+	/**
+	 * Makes sure there is state for at least the given number of items
+	 * @param count Number of items
+	 */
+	private void ensureItems(int count) {
+		while (mOpened.size() < count) {
+			mOpened.add(false);
+		}
+		while (mOpenedRight.size() < count) {
+			mOpenedRight.add(false);
+		}
+	}
+
+	/**
+	 * Moves the opened state of every item to its new position after the adapter data changed
+	 * @param oldPositions For each new position, the previous position of the item or -1 if it is new
+	 */
+	protected void remapItems(int[] oldPositions) {
+		mBatchScheduler.flush();
+		List<Boolean> opened = new ArrayList<Boolean>(oldPositions.length + 1);
+		List<Boolean> openedRight = new ArrayList<Boolean>(oldPositions.length + 1);
+		int openedCount = 0;
+		for (int oldPosition : oldPositions) {
+			boolean itemOpened = isOpened(oldPosition);
+			opened.add(itemOpened);
+			openedRight.add(isOpenedRight(oldPosition));
+			if (itemOpened) {
+				openedCount++;
+			}
+		}
+		mOpened = opened;
+		mOpenedCount = openedCount;
+		mOpenedRight = openedRight;
+		mChecked.remap(oldPositions);
+		resetItems();
+	}
+
+	/**
+	 * Inserts a closed item, shifting the state of the following items
+	 * @param position Position of the new item
+	 */
+	protected void insertItem(int position) {
+		mBatchScheduler.flush();
+		ensureItems(position);
+		mOpened.add(position, false);
+		mOpenedRight.add(position, false);
+		mChecked.insert(position);
+	}
+
+	/**
+	 * Removes the state of an item, shifting the state of the following items
+	 * @param position Position of the removed item
+	 */
+	protected void removeItem(int position) {
+		mBatchScheduler.flush();
+		if (position < mOpened.size() && mOpened.remove(position)) {
+			mOpenedCount--;
+		}
+		if (position < mOpenedRight.size()) {
+			mOpenedRight.remove(position);
+		}
+		mChecked.remove(position);
+	}
+
+	/**
+	 * Moves the state of an item to another position
+	 * @param from Current position of the item
+	 * @param to New position of the item, counted once the item has been taken out
+	 */
+	protected void moveItem(int from, int to) {
+		boolean opened = isOpened(from);
+		boolean openedRight = isOpenedRight(from);
+		boolean checked = mChecked.get(from);
+		removeItem(from);
+		insertItem(to);
+		setOpened(to, opened, openedRight);
+		mChecked.set(to, checked);
+	}
+
+	/**
+	 * Puts a row in the state of the position it is bound to, without animating it. Rows being
+	 * dragged or animated are left alone, the running gesture or animation commits their state.
+	 * @param rowView Row view
+	 * @param position Position of list
+	 */
+	protected void bindRow(View rowView, int position) {
+		View frontView = getFrontView(rowView);
+		if (frontView == null) {
+			return;
+		}
+		bindCheckedState(frontView, position);
+		if ((mSwiping && rowView == mParentView) || mAnimatingViews.contains(frontView)) {
+			return;
+		}
+		boolean opened = isOpened(position);
+		float translationX = 0;
+		if (opened) {
+			mViewWidth = mSwipeListView.getWidth();
+			translationX = isOpenedRight(position) ? mViewWidth - mRightOffset : -mViewWidth + mLeftOffset;
+		}
+		setBackViewVisible(rowView, opened);
+		setTranslationX(frontView, translationX);
+	}
+
+	/**
+	 * Shows the checked state of an item on its front view, if checked drawables are set
+	 * @param frontView Front view of the row
+	 * @param position Position of list
+	 */
+	private void bindCheckedState(View frontView, int position) {
+		int drawable = mChecked.get(position) ? mSwipeDrawableChecked : mSwipeDrawableUnchecked;
+		if (drawable > 0) {
+			frontView.setBackgroundResource(drawable);
+		}
+	}
+
+	/**
+	 * @param position Position of list
+	 * @return true if the item is checked
+	 */
+	public boolean isChecked(int position) {
+		return mChecked.get(position);
+	}
+
+	/**
+	 * @return number of checked items
+	 */
+	public int getCheckedCount() {
+		return mChecked.getCount();
+	}
+
+	/**
+	 * @return checked positions in ascending order
+	 */
+	public int[] getCheckedPositions() {
+		return mChecked.toArray();
+	}
+
+	/**
+	 * Checks or unchecks an item
+	 * @param position Position of list
+	 * @param checked New state
+	 */
+	protected void setChecked(int position, boolean checked) {
+		if (position >= 0 && position < mPositionMapper.getDataCount() && mChecked.set(position, checked)) {
+			onCheckedItemsChanged(position, position + 1);
+		}
+	}
+
+	/**
+	 * Checks or unchecks a range of items
+	 * @param from First position, inclusive
+	 * @param to Last position, exclusive
+	 * @param checked New state
+	 */
+	protected void setCheckedRange(int from, int to, boolean checked) {
+		from = Math.max(from, 0);
+		to = Math.min(to, mPositionMapper.getDataCount());
+		if (from < to) {
+			int count = mChecked.getCount();
+			mChecked.setRange(from, to, checked);
+			if (mChecked.getCount() != count) {
+				onCheckedItemsChanged(from, to);
+			}
+		}
+	}
+
+	/**
+	 * Checks every unchecked item and unchecks every checked item
+	 */
+	protected void invertChecked() {
+		int count = mPositionMapper.getDataCount();
+		if (count > 0) {
+			mChecked.setSize(count);
+			mChecked.invert();
+			onCheckedItemsChanged(0, count);
+		}
+	}
+
+	/**
+	 * Redraws the visible items of a changed range and notifies the change once
+	 * @param from First changed position, inclusive
+	 * @param to Last changed position, exclusive
+	 */
+	private void onCheckedItemsChanged(int from, int to) {
+		int childCount = mSwipeListView.getChildCount();
+		for (int i = 0; i < childCount; i++) {
+			int position = mPositionMapper.getDataPositionForChild(i);
+			if (position >= from && position < to) {
+				View frontView = getFrontView(mSwipeListView.getChildAt(i));
+				if (frontView != null) {
+					bindCheckedState(frontView, position);
+				}
+			}
+		}
+		mSwipeListView.onCheckedItemsChanged(from, to, mChecked.getCount());
+	}
+
+	/**
+	 * Create check animation. The front view goes back to its place and the item is toggled
+	 * @param view affected view
+	 * @param swap If the checked state should change
+	 * @param position Position of list
+	 */
+	private void generateCheckAnimate(final View view, final boolean swap, final int position) {
+		if (!mAnimatingViews.contains(view)) {
+			mAnimatingViews.add(view);
+		}
+		watchFrames(SwipeFrameMonitor.ANIMATION_CHECK, position);
+		animate(view)
+		.translationX(0)
+		.setDuration(mAnimationTime)
+		.setListener(new AnimatorListenerAdapter() {
+			@Override
+			public void onAnimationEnd(Animator animation) {
+				mAnimatingViews.remove(view);
+				mSwipeListView.resetScrolling();
+				if (swap) {
+					setChecked(position, !isChecked(position));
+				}
+				hideBackViewIfClosed(position);
+			}
+		});
+	}
+
+	/**
+	 * Moves the front view of every visible item to the place given by its opened state
+	 */
+	protected void syncOpenedViews() {
+		int childCount = mSwipeListView.getChildCount();
+		for (int i = 0; i < childCount; i++) {
+			int position = mPositionMapper.getDataPositionForChild(i);
+			if (position != ListView.INVALID_POSITION) {
+				bindRow(mSwipeListView.getChildAt(i), position);
+			}
+		}
+	}
+
+	/**
+	 * Open item toward the left
 	 * @param position Position of list
 	 */
 	protected void openAnimate(int position) {
-		openAnimate(mSwipeListView.getChildAt(position -
-                mSwipeListView.getFirstVisiblePosition()).findViewById(mSwipeFrontView), position);
+		openAnimate(position, false);
 	}
 
 	/**
-	 * Close item
+	 * Open item. onOpened is sent once, when the animation ends. Items that are not on screen
+	 * are opened without animation and notified right away.
+	 * @param position Position of list
+	 * @param toRight If the item should be opened toward the right
+	 */
+	protected void openAnimate(int position, boolean toRight) {
+		View child = mPositionMapper.getChildAt(position);
+		if (child == null) {
+			if (!isOpened(position)) {
+				setOpened(position, true, toRight);
+				mSwipeListView.onOpened(position, toRight);
+			}
+			return;
+		}
+		setBackViewVisible(child, true);
+		openAnimate(getFrontView(child), position, toRight);
+	}
+
+	/**
+	 * Close item. onClosed is sent once, when the animation ends. Items that are not on screen
+	 * are closed without animation and notified right away.
 	 * @param position Position of list
 	 */
 	protected void closeAnimate(int position) {
-		closeAnimate(mSwipeListView.getChildAt(position -
-                mSwipeListView.getFirstVisiblePosition()).findViewById(mSwipeFrontView), position);
+		View child = mPositionMapper.getChildAt(position);
+		closeAnimate(child != null ? getFrontView(child) : null, position);
 	}
 
 	/**
 	 * Open item
 	 * @param view affected view
 	 * @param position Position of list
+	 * @param toRight If the item should be opened toward the right
 	 */
-	private void openAnimate(View view, int position) {
-		if (!mOpened.get(position)) {
-			generateRevealAnimate(view, true, false, position);
+	private void openAnimate(View view, int position, boolean toRight) {
+		if (!isOpened(position)) {
+			generateRevealAnimate(view, true, toRight, position, -1);
 		}
 	}
 
@@ -321,13 +932,14 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
 	 * @param position Position of list
 	 */
 	private void closeAnimate(View view, int position) {
-		if (mOpened.get(position)) {
+		if (isOpened(position)) {
             if(view != null){
-                generateRevealAnimate(view, true, false, position);
+                generateRevealAnimate(view, true, false, position, -1);
             } else {
-                if(mSwipeListView.getCloseItemsListener() != null){
-                    mSwipeListView.getCloseItemsListener().onAllItemsClosed();
-                }
+                boolean right = mOpenedRight.get(position);
+                setOpened(position, false, false);
+                mSwipeListView.onClosed(position, right);
+                notifyIfAllItemsClosed();
             }
 		}
 	}
@@ -341,12 +953,18 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
 	 */
     protected void generateAnimate(final View view, final boolean swap,
                                    final boolean swapRight, final int position) {
+		long gestureEndTime = mGestureEndTime;
+		mGestureEndTime = -1;
 		if (mSwipeCurrentAction == SwipeListView.SWIPE_ACTION_REVEAL) {
-			generateRevealAnimate(view, swap, swapRight, position);
+			generateRevealAnimate(view, swap, swapRight, position, gestureEndTime);
 		}
 
 		if (mSwipeCurrentAction == SwipeListView.SWIPE_ACTION_DISMISS) {
-			generateDismissAnimate(mParentView, swap, swapRight, position);
+			generateDismissAnimate(mParentView, swap, swapRight, position, gestureEndTime);
+		}
+
+		if (mSwipeCurrentAction == SwipeListView.SWIPE_ACTION_CHECK) {
+			generateCheckAnimate(view, swap, position);
 		}
 	}
 
@@ -356,9 +974,10 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
 	 * @param swap If will change state. If is "false" returns to the original position
 	 * @param swapRight If swap is true, this parameter tells if move is to the right or left
 	 * @param position Position of list
+	 * @param gestureEndTime Time the finger lifted, -1 if the animation does not follow a gesture
 	 */
 	private void generateDismissAnimate(final View view, final boolean swap,
-                                        final boolean swapRight, final int position) {
+                                        final boolean swapRight, final int position, final long gestureEndTime) {
 		int moveTo = 0;
 		if (mOpened.get(position)) {
 			if (!swap) {
@@ -372,10 +991,24 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
 			}
 		}
 
+		watchFrames(SwipeFrameMonitor.ANIMATION_DISMISS, position);
 		int alpha = 1;
 		if (swap) {
 			++mDismissAnimationRefCount;
 			alpha = 0;
+			if (mPredictiveDismiss) {
+				// The neighbouring rows close the gap while the row fades out; the collapse owns
+				// the dismiss and stops the slide when it ends
+				animate(view)
+				.translationX(moveTo)
+				.alpha(alpha)
+				.setDuration(mAnimationTime)
+				.setListener(null);
+				closeOpenedItems();
+				performDismiss(view, position, gestureEndTime);
+				return;
+			}
+			mDismissingViews.add(view);
 		}
 
 		animate(view)
@@ -386,8 +1019,9 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
 			@Override
 			public void onAnimationEnd(Animator animation) {
 				if (swap) {
+					mDismissingViews.remove(view);
 					closeOpenedItems();
-					performDismiss(view, position);
+					performDismiss(view, position, gestureEndTime);
 				}
 			}
 		});
@@ -400,8 +1034,10 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
 	 * @param swap If will change state. If "false" returns to the original position
 	 * @param swapRight If swap is true, this parameter tells if movement is toward right or left
 	 * @param position list position
+	 * @param gestureEndTime Time the finger lifted, -1 if the animation does not follow a gesture
 	 */
-	private void generateRevealAnimate(final View view, final boolean swap, final boolean swapRight, final int position) {
+	private void generateRevealAnimate(final View view, final boolean swap, final boolean swapRight,
+									   final int position, final long gestureEndTime) {
 		int moveTo = 0;
 		mViewWidth = mSwipeListView.getWidth();
 		if (mOpened.get(position)) {
@@ -414,27 +1050,33 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
 			}
 		}
 
+		if (!mAnimatingViews.contains(view)) {
+			mAnimatingViews.add(view);
+		}
+		watchFrames(SwipeFrameMonitor.ANIMATION_REVEAL, position);
 		animate(view)
 		.translationX(moveTo)
 		.setDuration(mAnimationTime)
 		.setListener(new AnimatorListenerAdapter() {
 			@Override
 			public void onAnimationEnd(Animator animation) {
+				mAnimatingViews.remove(view);
 				mSwipeListView.resetScrolling();
 				if (swap) {
 					boolean aux = !mOpened.get(position);
-                    mOpened.set(position, aux);
+					putOpened(position, aux);
 					if (aux) {
 						mSwipeListView.onOpened(position, swapRight);
 						mOpenedRight.set(position, swapRight);
 					} else {
 						mSwipeListView.onClosed(position, mOpenedRight.get(position));
-						if(allItemsClosed() && 
-								mSwipeListView.getCloseItemsListener() != null){
-							mSwipeListView.getCloseItemsListener().onAllItemsClosed();
-						}
+						notifyIfAllItemsClosed();
 					}
 				}
+				hideBackViewIfClosed(position);
+				if (mMetrics != null && gestureEndTime >= 0) {
+					mMetrics.record(SwipeMetrics.METRIC_REVEAL, SystemClock.uptimeMillis() - gestureEndTime);
+				}
 			}
 		});
 	}
@@ -479,36 +1121,147 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
             mListViewMoving = false;
             mDownPosition = ListView.INVALID_POSITION;
             mSwipeListView.resetScrolling();
-            new Handler().postDelayed(new Runnable() {
-                @Override
-                public void run() {
-                    setEnabled(true);
-                }
-            }, 500);
+            mSwipeListView.removeCallbacks(mEnableRunnable);
+            mSwipeListView.postDelayed(mEnableRunnable, 500);
         }
     }
 
+	/**
+	 * Drops every pending runnable, animation and view reference when the list leaves the window.
+	 * Reveal and check animations are cancelled without committing their state, so rows get back
+	 * their last committed state when the list is attached again; collapsing dismissed rows are
+	 * finished at once so the dismiss is still reported.
+	 */
+	protected void release() {
+		mSwipeListView.removeCallbacks(mEnableRunnable);
+		mBatchScheduler.cancelAll();
+		mCloseBatch = null;
+		if (mFrameMonitor != null) {
+			mFrameMonitor.stopAll();
+		}
+
+		if (mVelocityTracker != null) {
+			mVelocityTracker.recycle();
+			mVelocityTracker = null;
+		}
+		mSwiping = false;
+		mDismissCommitted = false;
+		mDownX = 0;
+		mDownPosition = ListView.INVALID_POSITION;
+		mSwipeCurrentAction = SwipeListView.SWIPE_ACTION_NONE;
+		mParentView = null;
+		mFrontView = null;
+
+		for (View view : mAnimatingViews) {
+			animate(view).setListener(null).cancel();
+		}
+		mAnimatingViews.clear();
+
+		for (View view : mDismissingViews) {
+			animate(view).setListener(null).cancel();
+			setAlpha(view, 1f);
+			setTranslationX(view, 0);
+			--mDismissAnimationRefCount;
+		}
+		mDismissingViews.clear();
+
+		for (ValueAnimator animator : new ArrayList<ValueAnimator>(mDismissAnimators)) {
+			animator.end();
+		}
+		mDismissAnimators.clear();
+		mPendingDismisses.clear();
+		mDismissAnimationRefCount = 0;
+	}
+
 	/**
 	 * Close all opened items
 	 */
 	public void closeOpenedItems() {
-		if (mOpened != null) {
-			int start = mSwipeListView.getFirstVisiblePosition();
-			int end = mSwipeListView.getLastVisiblePosition();
-            try {
-                for (int i = start; i <= end; i++) {
-                    if (mOpened.get(i)) {
-                        closeAnimate(mSwipeListView.getChildAt(i - start).findViewById(mSwipeFrontView), i);
-                    }
-                }
-            } catch (IndexOutOfBoundsException e) {
-                /*
-                 * Header views and footer views if visible,
-                 * will case an index out of bounds exception
-                 */
-            }
+		closeOpenedItems(null);
+	}
+
+	/**
+	 * Close all opened items. Visible items are animated at once, off-screen items are closed
+	 * over the next frames within the frame budget.
+	 * @param listener Listener notified of progress and completion, may be null
+	 */
+	public void closeOpenedItems(BatchOperationListener listener) {
+		if (mOpenedCount == 0 && mCloseBatch == null) {
+			if (listener != null) {
+				listener.onBatchFinished();
+			}
+			return;
+		}
+		// Header and footer views map to INVALID_POSITION and are skipped
+		int childCount = mSwipeListView.getChildCount();
+		for (int i = 0; i < childCount; i++) {
+			int position = mPositionMapper.getDataPositionForChild(i);
+			if (position != ListView.INVALID_POSITION && isOpened(position)) {
+				closeAnimate(getFrontView(mSwipeListView.getChildAt(i)), position);
+			}
+		}
+		if (mCloseBatch == null) {
+			mCloseBatch = new SwipeBatchScheduler.Batch(mOpened.size()) {
+				@Override
+				void process(int position) {
+					closeFromBatch(position);
+				}
 
+				@Override
+				void onFinished() {
+					mCloseBatch = null;
+					notifyIfAllItemsClosed();
+				}
+			};
+			mBatchScheduler.schedule(mCloseBatch);
 		}
+		mCloseBatch.addListener(listener);
+	}
+
+	/**
+	 * Closes an item from a bulk close. Rows that scrolled into view meanwhile are animated,
+	 * rows already animating are left to their animation.
+	 * @param position Position of list
+	 */
+	private void closeFromBatch(int position) {
+		if (!isOpened(position)) {
+			return;
+		}
+		View child = mPositionMapper.getChildAt(position);
+		if (child != null) {
+			View frontView = getFrontView(child);
+			if (!mAnimatingViews.contains(frontView)) {
+				closeAnimate(frontView, position);
+			}
+		} else {
+			boolean right = isOpenedRight(position);
+			setOpened(position, false, false);
+			mSwipeListView.onClosed(position, right);
+		}
+	}
+
+	/**
+	 * Drops the pending close of the off-screen items
+	 */
+	private void cancelCloseBatch() {
+		if (mCloseBatch != null) {
+			mBatchScheduler.cancel(mCloseBatch);
+			mCloseBatch = null;
+		}
+	}
+
+	/**
+	 * @param frameBudgetNanos Time that bulk operations may spend in one frame
+	 */
+	public void setBatchFrameBudget(long frameBudgetNanos) {
+		mBatchScheduler.setFrameBudget(frameBudgetNanos);
+	}
+
+	/**
+	 * @return true while a bulk operation still has items to process
+	 */
+	public boolean isBatchRunning() {
+		return mBatchScheduler.isRunning();
 	}
 
 	/**
@@ -529,84 +1282,140 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
 
 		case MotionEvent.ACTION_UP: {
             actionUp(motionEvent);
+            break;
         }
 
 		case MotionEvent.ACTION_MOVE: {
-			if (mVelocityTracker == null || mPaused || mDownPosition == ListView.INVALID_POSITION) {
-				break;
-			}
+			return actionMove(motionEvent);
+		}
+		}
+		return false;
+	}
 
-			mVelocityTracker.addMovement(motionEvent);
-			mVelocityTracker.computeCurrentVelocity(1000);
-			float velocityX = Math.abs(mVelocityTracker.getXVelocity());
-			float velocityY = Math.abs(mVelocityTracker.getYVelocity());
+	/**
+	 * Handles a move event, shared by every touch listener
+	 * @param motionEvent Move event
+	 * @return true if the event is part of a swipe
+	 */
+	protected boolean actionMove(MotionEvent motionEvent) {
+		if (mDismissCommitted) {
+			return true;
+		}
+		if (mVelocityTracker == null || mPaused || mDownPosition == ListView.INVALID_POSITION) {
+			return false;
+		}
 
-			float deltaX = motionEvent.getRawX() - mDownX;
-			float deltaMode = Math.abs(deltaX);
+		mVelocityTracker.addMovement(motionEvent);
+		mVelocityTracker.computeCurrentVelocity(1000);
+		float velocityX = Math.abs(mVelocityTracker.getXVelocity());
+		float velocityY = Math.abs(mVelocityTracker.getYVelocity());
+		if (mTouchPredictor != null) {
+			addPredictorSamples(motionEvent);
+		}
 
-			int swipeMode = mSwipeMode;
-			int changeSwipeMode = mSwipeListView.changeSwipeMode(mDownPosition);
-			if (changeSwipeMode >= 0) {
-				swipeMode = changeSwipeMode;
-			}
+		float deltaX = motionEvent.getRawX() - mDownX;
+		float deltaY = motionEvent.getRawY() - mDownY;
+		float deltaMode = Math.abs(deltaX);
 
-			if (swipeMode == SwipeListView.SWIPE_MODE_NONE) {
-				deltaMode = 0;
-			} else if (swipeMode != SwipeListView.SWIPE_MODE_BOTH) {
-				if (mOpened.get(mDownPosition)) {
-					if (swipeMode == SwipeListView.SWIPE_MODE_LEFT && deltaX < 0) {
-						deltaMode = 0;
-					} else if (swipeMode == SwipeListView.SWIPE_MODE_RIGHT && deltaX > 0) {
-						deltaMode = 0;
-					}
-				} else {
-					if (swipeMode == SwipeListView.SWIPE_MODE_LEFT && deltaX > 0) {
-						deltaMode = 0;
-					} else if (swipeMode == SwipeListView.SWIPE_MODE_RIGHT && deltaX < 0) {
-						deltaMode = 0;
-					}
+		int swipeMode = mSwipeMode;
+		int changeSwipeMode = mSwipeListView.changeSwipeMode(mDownPosition);
+		if (changeSwipeMode >= 0) {
+			swipeMode = changeSwipeMode;
+		}
+
+		if (swipeMode == SwipeListView.SWIPE_MODE_NONE) {
+			deltaMode = 0;
+		} else if (swipeMode != SwipeListView.SWIPE_MODE_BOTH) {
+			if (mOpened.get(mDownPosition)) {
+				if (swipeMode == SwipeListView.SWIPE_MODE_LEFT && deltaX < 0) {
+					deltaMode = 0;
+				} else if (swipeMode == SwipeListView.SWIPE_MODE_RIGHT && deltaX > 0) {
+					deltaMode = 0;
+				}
+			} else {
+				if (swipeMode == SwipeListView.SWIPE_MODE_LEFT && deltaX > 0) {
+					deltaMode = 0;
+				} else if (swipeMode == SwipeListView.SWIPE_MODE_RIGHT && deltaX < 0) {
+					deltaMode = 0;
 				}
 			}
-			if (deltaMode > mSlop && mSwipeCurrentAction == SwipeListView.SWIPE_ACTION_NONE && velocityY < velocityX) {
-                mSwiping = true;
-				boolean swipingRight = (deltaX > 0);
-				if (mOpened.get(mDownPosition)) {
-					mSwipeListView.onStartClose(mDownPosition, swipingRight);
-                    mSwipeCurrentAction = SwipeListView.SWIPE_ACTION_REVEAL;
+		}
+		if (mSwipeCurrentAction == SwipeListView.SWIPE_ACTION_NONE
+				&& mIntentDetector.isSwipe(deltaMode, deltaY, velocityX, velocityY)) {
+            mSwiping = true;
+			mSwipeStartLatency = motionEvent.getEventTime() - mDownTime;
+			if (mMetrics != null) {
+				mMetrics.record(SwipeMetrics.METRIC_SWIPE_START, mSwipeStartLatency);
+				mMetrics.onSwipeStarted(SystemClock.uptimeMillis());
+			}
+			boolean swipingRight = (deltaX > 0);
+			if (mOpened.get(mDownPosition)) {
+				mSwipeListView.onStartClose(mDownPosition, swipingRight);
+                mSwipeCurrentAction = SwipeListView.SWIPE_ACTION_REVEAL;
+			} else {
+				if (swipingRight && mSwipeActionRight == SwipeListView.SWIPE_ACTION_DISMISS) {
+                    mSwipeCurrentAction = SwipeListView.SWIPE_ACTION_DISMISS;
+				} else if (!swipingRight && mSwipeActionLeft == SwipeListView.SWIPE_ACTION_DISMISS) {
+                    mSwipeCurrentAction = SwipeListView.SWIPE_ACTION_DISMISS;
+				} else if (swipingRight && mSwipeActionRight == SwipeListView.SWIPE_ACTION_CHECK) {
+                    mSwipeCurrentAction = SwipeListView.SWIPE_ACTION_CHECK;
+				} else if (!swipingRight && mSwipeActionLeft == SwipeListView.SWIPE_ACTION_CHECK) {
+                    mSwipeCurrentAction = SwipeListView.SWIPE_ACTION_CHECK;
 				} else {
-					if (swipingRight && mSwipeActionRight == SwipeListView.SWIPE_ACTION_DISMISS) {
-                        mSwipeCurrentAction = SwipeListView.SWIPE_ACTION_DISMISS;
-					} else if (!swipingRight && mSwipeActionLeft == SwipeListView.SWIPE_ACTION_DISMISS) {
-                        mSwipeCurrentAction = SwipeListView.SWIPE_ACTION_DISMISS;
-					} else if (swipingRight && mSwipeActionRight == SwipeListView.SWIPE_ACTION_CHECK) {
-                        mSwipeCurrentAction = SwipeListView.SWIPE_ACTION_CHECK;
-					} else if (!swipingRight && mSwipeActionLeft == SwipeListView.SWIPE_ACTION_CHECK) {
-                        mSwipeCurrentAction = SwipeListView.SWIPE_ACTION_CHECK;
-					} else {
-                        mSwipeCurrentAction = SwipeListView.SWIPE_ACTION_REVEAL;
-					}
-					mSwipeListView.onStartOpen(mDownPosition, mSwipeCurrentAction, swipingRight);
+                    mSwipeCurrentAction = SwipeListView.SWIPE_ACTION_REVEAL;
 				}
-				mSwipeListView.requestDisallowInterceptTouchEvent(true);
-				MotionEvent cancelEvent = MotionEvent.obtain(motionEvent);
-				cancelEvent.setAction(MotionEvent.ACTION_CANCEL |
-						(MotionEventCompat.getActionIndex(motionEvent) << MotionEventCompat.ACTION_POINTER_INDEX_SHIFT));
-				mSwipeListView.onTouchEvent(cancelEvent);
+				mSwipeListView.onStartOpen(mDownPosition, mSwipeCurrentAction, swipingRight);
 			}
+			if (mSwipeCurrentAction == SwipeListView.SWIPE_ACTION_REVEAL) {
+				setBackViewVisible(mParentView, true);
+			}
+			mSwipeListView.requestDisallowInterceptTouchEvent(true);
+			MotionEvent cancelEvent = MotionEvent.obtain(motionEvent);
+			cancelEvent.setAction(MotionEvent.ACTION_CANCEL |
+					(MotionEventCompat.getActionIndex(motionEvent) << MotionEventCompat.ACTION_POINTER_INDEX_SHIFT));
+			mSwipeListView.onTouchEvent(cancelEvent);
+			cancelEvent.recycle();
+			onSwipeStarted();
+		}
 
-			if (mSwiping) {
-				if (mOpened.get(mDownPosition)) {
-					deltaX += mOpenedRight.get(mDownPosition) ? mViewWidth - mRightOffset : -mViewWidth + mLeftOffset;
-				}
+		if (mSwiping) {
+			if (mOpened.get(mDownPosition)) {
+				deltaX += mOpenedRight.get(mDownPosition) ? mViewWidth - mRightOffset : -mViewWidth + mLeftOffset;
+			}
+			if (mTouchPredictor != null) {
+				move(deltaX + mTouchPredictor.predictOffset(SystemClock.uptimeMillis()
+						+ SwipeTouchPredictor.DEFAULT_HORIZON_MILLIS));
+			} else {
 				move(deltaX);
-				return true;
 			}
-			break;
-		}
+			if (mPredictiveDismiss && mSwipeCurrentAction == SwipeListView.SWIPE_ACTION_DISMISS
+					&& !mOpened.get(mDownPosition)) {
+				commitDismissIfCertain(deltaX);
+			}
+			return true;
 		}
 		return false;
 	}
 
+	/**
+	 * Feeds the touch predictor with the batched samples of a move event and the event itself
+	 * @param motionEvent Move event
+	 */
+	private void addPredictorSamples(MotionEvent motionEvent) {
+		float rawOffset = motionEvent.getRawX() - motionEvent.getX();
+		int historySize = motionEvent.getHistorySize();
+		for (int i = 0; i < historySize; i++) {
+			mTouchPredictor.addSample(motionEvent.getHistoricalEventTime(i), motionEvent.getHistoricalX(i) + rawOffset);
+		}
+		mTouchPredictor.addSample(motionEvent.getEventTime(), motionEvent.getRawX());
+	}
+
+	/**
+	 * Called once a touch has been committed to a swipe
+	 */
+	protected void onSwipeStarted() {
+	}
+
 	/**
 	 * Moves the view
 	 * @param deltaX delta
@@ -628,6 +1437,8 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
 	class PendingDismissData implements Comparable<PendingDismissData> {
 		public int mPosition;
 		public View mView;
+		long mGestureEndTime = -1;
+		long mCollapseStartTime = -1;
 
 		public PendingDismissData(int position, View view) {
 			mPosition = position;
@@ -647,14 +1458,26 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
 	 * @param dismissPosition Position of list
 	 */
 	public void performDismiss(final View dismissView, final int dismissPosition) {
+		performDismiss(dismissView, dismissPosition, -1);
+	}
+
+	/**
+	 * Perform dismiss action
+	 * @param dismissView View
+	 * @param dismissPosition Position of list
+	 * @param gestureEndTime Time the finger lifted, -1 if the dismiss does not follow a gesture
+	 */
+	private void performDismiss(final View dismissView, final int dismissPosition, long gestureEndTime) {
 		final ViewGroup.LayoutParams lp = dismissView.getLayoutParams();
-		final int originalHeight = dismissView.getMeasuredHeight();
+		final int originalHeight = mPositionMapper.getRowHeight(dismissView);
 
 		ValueAnimator animator = ValueAnimator.ofInt(originalHeight, 1).setDuration(mAnimationTime);
+		watchFrames(SwipeFrameMonitor.ANIMATION_DISMISS, dismissPosition);
 
 		animator.addListener(new AnimatorListenerAdapter() {
 			@Override
 			public void onAnimationEnd(Animator animation) {
+				mDismissAnimators.remove(animation);
 				--mDismissAnimationRefCount;
 				if (mDismissAnimationRefCount == 0) {
 					// No active animations, process all pending dismisses.
@@ -665,11 +1488,21 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
 					for (int i = mPendingDismisses.size() - 1; i >= 0; i--) {
 						dismissPositions[i] = mPendingDismisses.get(i).mPosition;
 					}
+					// The listener removes the rows from the adapter, drop their state first so
+					// the following rows keep theirs
+					for (int position : dismissPositions) {
+						removeItem(position);
+					}
 					mSwipeListView.onDismiss(dismissPositions);
+					if (mMetrics != null) {
+						recordDismissMetrics();
+					}
 
 					ViewGroup.LayoutParams lp;
 					for (PendingDismissData pendingDismiss : mPendingDismisses) {
 						// Reset view presentation
+						animate(pendingDismiss.mView).setListener(null).cancel();
+						setBackViewVisible(pendingDismiss.mView, false);
 						setAlpha(pendingDismiss.mView, 1f);
 						setTranslationX(pendingDismiss.mView, 0);
 						lp = pendingDismiss.mView.getLayoutParams();
@@ -690,36 +1523,62 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
 			}
 		});
 
-		mPendingDismisses.add(new PendingDismissData(dismissPosition, dismissView));
+		PendingDismissData pendingDismiss = new PendingDismissData(dismissPosition, dismissView);
+		if (mMetrics != null) {
+			pendingDismiss.mGestureEndTime = gestureEndTime;
+			pendingDismiss.mCollapseStartTime = SystemClock.uptimeMillis();
+		}
+		mPendingDismisses.add(pendingDismiss);
+		mDismissAnimators.add(animator);
 		animator.start();
 	}
 
+	/**
+	 * Records the latencies of the dismisses that have just been reported
+	 */
+	private void recordDismissMetrics() {
+		long now = SystemClock.uptimeMillis();
+		for (int i = 0; i < mPendingDismisses.size(); i++) {
+			PendingDismissData pendingDismiss = mPendingDismisses.get(i);
+			if (pendingDismiss.mGestureEndTime >= 0) {
+				mMetrics.record(SwipeMetrics.METRIC_DISMISS, now - pendingDismiss.mGestureEndTime);
+			}
+			if (pendingDismiss.mCollapseStartTime >= 0) {
+				mMetrics.record(SwipeMetrics.METRIC_DISMISS_CALLBACK, now - pendingDismiss.mCollapseStartTime);
+			}
+		}
+	}
+
     protected boolean actionDown(View view, MotionEvent motionEvent) {
         if (mPaused) {
             return false;
         }
         mSwipeCurrentAction = SwipeListView.SWIPE_ACTION_NONE;
+        mDismissCommitted = false;
 
-        int childCount = mSwipeListView.getChildCount();
-        int[] listViewCoords = new int[2];
-        mSwipeListView.getLocationOnScreen(listViewCoords);
-        int x = (int) motionEvent.getRawX() - listViewCoords[0];
-        int y = (int) motionEvent.getRawY() - listViewCoords[1];
-        View child;
-        for (int i = 0; i < childCount; i++) {
-            child = mSwipeListView.getChildAt(i);
-            child.getHitRect(mRect);
-
-            int childPosition = mSwipeListView.getPositionForView(child);
+        // The listener is installed on the list itself, event coordinates are list coordinates
+        int childIndex = mPositionMapper.getChildIndexAt((int) motionEvent.getX(), (int) motionEvent.getY(),
+                mDismissAnimationRefCount > 0);
+        if (childIndex != ListView.INVALID_POSITION) {
+            View child = mSwipeListView.getChildAt(childIndex);
+            int childPosition = mPositionMapper.getDataPositionForChild(childIndex);
 
             // dont allow swiping if this is on the header or footer or IGNORE_ITEM_VIEW_TYPE or enabled is false on the adapter
-            boolean allowSwipe = mSwipeListView.getAdapter().isEnabled(childPosition) && mSwipeListView.getAdapter().getItemViewType(childPosition) >= 0;
+            boolean allowSwipe = childPosition != ListView.INVALID_POSITION
+                    && mPositionMapper.getDataAdapter().isEnabled(childPosition)
+                    && mPositionMapper.getDataAdapter().getItemViewType(childPosition) >= 0;
 
-            if (allowSwipe && mRect.contains(x, y)) {
+            if (allowSwipe) {
                 setParentView(child);
-                setFrontView(child.findViewById(mSwipeFrontView));
+                setFrontView(getFrontView(child));
 
                 mDownX = motionEvent.getRawX();
+                mDownY = motionEvent.getRawY();
+                mDownTime = motionEvent.getEventTime();
+                if (mTouchPredictor != null) {
+                    mTouchPredictor.reset();
+                    mTouchPredictor.addSample(mDownTime, mDownX);
+                }
                 mDownPosition = childPosition;
 
                 mFrontView.setClickable(!mOpened.get(mDownPosition));
@@ -727,10 +1586,14 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
 
                 mVelocityTracker = VelocityTracker.obtain();
                 mVelocityTracker.addMovement(motionEvent);
-                if (mSwipeBackView > 0) {
-                    setBackView(child.findViewById(mSwipeBackView));
+                View backView = getBackView(child);
+                if (backView != null) {
+                    setBackView(backView);
+                    // Drawn again once a swipe starts
+                    if (!mOpened.get(mDownPosition)) {
+                        backView.setVisibility(View.INVISIBLE);
+                    }
                 }
-                break;
             }
         }
         view.onTouchEvent(motionEvent);
@@ -738,7 +1601,16 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
     }
 
     protected void actionUp(MotionEvent motionEvent) {
-        if (mVelocityTracker == null || !mSwiping) {
+        if (mDismissCommitted) {
+            mDismissCommitted = false;
+            return;
+        }
+        if (mVelocityTracker == null) {
+            return;
+        }
+        if (!mSwiping) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
             return;
         }
 
@@ -765,19 +1637,54 @@ public class SwipeListViewTouchListener implements View.OnTouchListener {
             swap = true;
             swapRight = deltaX > 0;
         }
+        finishSwipe(swap, swapRight);
+    }
+
+    /**
+     * Animates the swiped item to its final state and clears the gesture
+     * @param swap If the item changes state
+     * @param swapRight If swap is true, this parameter tells if move is to the right or left
+     */
+    private void finishSwipe(boolean swap, boolean swapRight) {
+        if (mMetrics != null) {
+            mGestureEndTime = SystemClock.uptimeMillis();
+        }
         generateAnimate(mFrontView, swap, swapRight, mDownPosition);
 
         mVelocityTracker.recycle();
         mVelocityTracker = null;
         mDownX = 0;
-        // change clickable front view
-        if (swap) {
+        // change clickable front view, a checked item stays closed
+        if (swap && mSwipeCurrentAction != SwipeListView.SWIPE_ACTION_CHECK) {
             mFrontView.setClickable(mOpened.get(mDownPosition));
             mFrontView.setLongClickable(mOpened.get(mDownPosition));
         }
         mFrontView = null;
+        mParentView = null;
         mDownPosition = ListView.INVALID_POSITION;
         mSwiping = false;
     }
 
+    /**
+     * Commits a dismiss before the finger lifts when the row is already past half the list
+     * width and still moving out, or is flung out much faster than a regular fling
+     * @param deltaX Horizontal distance from the down event
+     * @return true if the dismiss has been committed
+     */
+    private boolean commitDismissIfCertain(float deltaX) {
+        float velocity = mVelocityTracker.getXVelocity();
+        boolean outward = velocity != 0 && (velocity > 0) == (deltaX > 0);
+        float absVelocity = Math.abs(velocity);
+        boolean certain = outward && (Math.abs(deltaX) > mViewWidth / 2
+                || (absVelocity >= mMinFlingVelocity * PREDICTIVE_DISMISS_FLING_FACTOR
+                && absVelocity <= mMaxFlingVelocity
+                && Math.abs(mVelocityTracker.getYVelocity()) < absVelocity
+                && Math.abs(deltaX) > mViewWidth / 4));
+        if (certain) {
+            mDismissCommitted = true;
+            finishSwipe(true, deltaX > 0);
+        }
+        return certain;
+    }
+
 }
@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview;
+
+import android.graphics.Rect;
+import android.view.View;
+import android.widget.ListAdapter;
+import android.widget.ListView;
+
+/**
+ * Maps between the three kinds of positions used by SwipeListView:
+ * <ul>
+ * <li>list positions, as used by ListView, counting header and footer views</li>
+ * <li>data positions, the positions of the application adapter; swipe state and
+ * listener callbacks always use these</li>
+ * <li>child indexes of the rows currently attached to the list</li>
+ * </ul>
+ * Every lookup is plain arithmetic and returns ListView.INVALID_POSITION (or null) for
+ * header views, footer views and rows that are not on screen.
+ *
+ * When every row has the same declared height (and the list has no header or footer views), hit
+ * testing, row heights and the scroll offset are computed instead of read from the
+ * attached children.
+ */
+class SwipePositionMapper {
+
+    private final SwipeListView mSwipeListView;
+
+    private final Rect mRect = new Rect();
+
+    private int mFixedRowHeight = 0;
+
+    SwipePositionMapper(SwipeListView swipeListView) {
+        mSwipeListView = swipeListView;
+    }
+
+    /**
+     * @param fixedRowHeight height of every row in pixels, 0 if rows have different heights
+     */
+    void setFixedRowHeight(int fixedRowHeight) {
+        mFixedRowHeight = fixedRowHeight;
+    }
+
+    /**
+     * @return height of every row in pixels, 0 if rows have different heights
+     */
+    int getFixedRowHeight() {
+        return mFixedRowHeight;
+    }
+
+    /**
+     * @return true if row geometry can be computed instead of measured
+     */
+    private boolean hasFixedGeometry() {
+        return mFixedRowHeight > 0 && mSwipeListView.getHeaderViewsCount() == 0
+                && mSwipeListView.getFooterViewsCount() == 0;
+    }
+
+    /**
+     * @return distance between the tops of two consecutive rows
+     */
+    private int getRowPitch() {
+        return mFixedRowHeight + mSwipeListView.getDividerHeight();
+    }
+
+    /**
+     * Finds the attached row under a point
+     * @param x X in list coordinates
+     * @param y Y in list coordinates
+     * @param rowsResizing true while some row height is animated, rows are then hit tested one by one
+     * @return child index, or INVALID_POSITION if no row is under the point
+     */
+    int getChildIndexAt(int x, int y, boolean rowsResizing) {
+        int childCount = mSwipeListView.getChildCount();
+        if (childCount == 0) {
+            return ListView.INVALID_POSITION;
+        }
+        if (hasFixedGeometry() && !rowsResizing) {
+            int offset = y - mSwipeListView.getChildAt(0).getTop();
+            if (offset < 0 || offset % getRowPitch() >= mFixedRowHeight) {
+                return ListView.INVALID_POSITION;
+            }
+            int childIndex = offset / getRowPitch();
+            return childIndex < childCount ? childIndex : ListView.INVALID_POSITION;
+        }
+        for (int i = 0; i < childCount; i++) {
+            mSwipeListView.getChildAt(i).getHitRect(mRect);
+            if (mRect.contains(x, y)) {
+                return i;
+            }
+        }
+        return ListView.INVALID_POSITION;
+    }
+
+    /**
+     * @param rowView Attached row
+     * @return height of the row, without reading the view when rows have a fixed height
+     */
+    int getRowHeight(View rowView) {
+        return mFixedRowHeight > 0 ? mFixedRowHeight : rowView.getMeasuredHeight();
+    }
+
+    /**
+     * @return exact scroll offset in pixels, or -1 if rows do not have a fixed height
+     */
+    int computeScrollOffset() {
+        if (!hasFixedGeometry() || mSwipeListView.getChildCount() == 0) {
+            return -1;
+        }
+        return mSwipeListView.getFirstVisiblePosition() * getRowPitch() - mSwipeListView.getChildAt(0).getTop()
+                + mSwipeListView.getPaddingTop();
+    }
+
+    /**
+     * @return exact height of the whole list content, paddings included, in pixels, or -1 if rows do not have a fixed height
+     */
+    int computeScrollRange() {
+        if (!hasFixedGeometry()) {
+            return -1;
+        }
+        int count = mSwipeListView.getCount();
+        int padding = mSwipeListView.getPaddingTop() + mSwipeListView.getPaddingBottom();
+        return count > 0 ? count * getRowPitch() - mSwipeListView.getDividerHeight() + padding : padding;
+    }
+
+    /**
+     * @return the application adapter, without the wrappers added by the list
+     */
+    ListAdapter getDataAdapter() {
+        return mSwipeListView.getWrappedAdapter();
+    }
+
+    /**
+     * @return number of rows of the application adapter
+     */
+    int getDataCount() {
+        ListAdapter adapter = getDataAdapter();
+        return adapter != null ? adapter.getCount() : 0;
+    }
+
+    /**
+     * @param listPosition List position
+     * @return data position, or INVALID_POSITION for header and footer views
+     */
+    int getDataPosition(int listPosition) {
+        int dataPosition = listPosition - mSwipeListView.getHeaderViewsCount();
+        if (dataPosition < 0 || dataPosition >= getDataCount()) {
+            return ListView.INVALID_POSITION;
+        }
+        return dataPosition;
+    }
+
+    /**
+     * @param dataPosition Data position
+     * @return list position
+     */
+    int getListPosition(int dataPosition) {
+        return dataPosition + mSwipeListView.getHeaderViewsCount();
+    }
+
+    /**
+     * @param childIndex Index of an attached row
+     * @return data position of the row, or INVALID_POSITION for header and footer views
+     */
+    int getDataPositionForChild(int childIndex) {
+        return getDataPosition(mSwipeListView.getFirstVisiblePosition() + childIndex);
+    }
+
+    /**
+     * @param dataPosition Data position
+     * @return index of the attached row, or INVALID_POSITION if the row is not on screen
+     */
+    int getChildIndex(int dataPosition) {
+        int childIndex = getListPosition(dataPosition) - mSwipeListView.getFirstVisiblePosition();
+        if (dataPosition < 0 || childIndex < 0 || childIndex >= mSwipeListView.getChildCount()) {
+            return ListView.INVALID_POSITION;
+        }
+        return childIndex;
+    }
+
+    /**
+     * @param dataPosition Data position
+     * @return the attached row view, or null if the row is not on screen
+     */
+    View getChildAt(int dataPosition) {
+        int childIndex = getChildIndex(dataPosition);
+        return childIndex != ListView.INVALID_POSITION ? mSwipeListView.getChildAt(childIndex) : null;
+    }
+}
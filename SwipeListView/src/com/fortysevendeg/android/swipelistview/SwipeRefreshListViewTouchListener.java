@@ -20,11 +20,9 @@
 
 package com.fortysevendeg.android.swipelistview;
 
-import android.support.v4.view.MotionEventCompat;
 import android.view.MotionEvent;
 import android.view.View;
 import android.widget.AbsListView;
-import android.widget.ListView;
 
 /**
  * Touch listener impl for the SwipeListView
@@ -98,84 +96,22 @@ public class SwipeRefreshListViewTouchListener extends SwipeListViewTouchListene
             }
 
             case MotionEvent.ACTION_MOVE: {
-                if (mVelocityTracker == null || mPaused || mDownPosition == ListView.INVALID_POSITION) {
-                    break;
-                }
-
-                mVelocityTracker.addMovement(motionEvent);
-                mVelocityTracker.computeCurrentVelocity(1000);
-                float velocityX = Math.abs(mVelocityTracker.getXVelocity());
-                float velocityY = Math.abs(mVelocityTracker.getYVelocity());
-
-                float deltaX = motionEvent.getRawX() - mDownX;
-                float deltaMode = Math.abs(deltaX);
-
-                int swipeMode = mSwipeMode;
-                int changeSwipeMode = mSwipeListView.changeSwipeMode(mDownPosition);
-                if (changeSwipeMode >= 0) {
-                    swipeMode = changeSwipeMode;
-                }
-
-                if (swipeMode == SwipeListView.SWIPE_MODE_NONE) {
-                    deltaMode = 0;
-                } else if (swipeMode != SwipeListView.SWIPE_MODE_BOTH) {
-                    if (mOpened.get(mDownPosition)) {
-                        if (swipeMode == SwipeListView.SWIPE_MODE_LEFT && deltaX < 0) {
-                            deltaMode = 0;
-                        } else if (swipeMode == SwipeListView.SWIPE_MODE_RIGHT && deltaX > 0) {
-                            deltaMode = 0;
-                        }
-                    } else {
-                        if (swipeMode == SwipeListView.SWIPE_MODE_LEFT && deltaX > 0) {
-                            deltaMode = 0;
-                        } else if (swipeMode == SwipeListView.SWIPE_MODE_RIGHT && deltaX < 0) {
-                            deltaMode = 0;
-                        }
-                    }
-                }
-                if (deltaMode > mSlop && mSwipeCurrentAction == SwipeListView.SWIPE_ACTION_NONE && velocityY < velocityX) {
-                    mSwiping = true;
-                    if (mRefreshSwipeListener != null) {
-                        mRefreshSwipeListener.setScroll(true);
-                    }
-                    boolean swipingRight = (deltaX > 0);
-                    if (mOpened.get(mDownPosition)) {
-                        mSwipeListView.onStartClose(mDownPosition, swipingRight);
-                        mSwipeCurrentAction = SwipeListView.SWIPE_ACTION_REVEAL;
-                    } else {
-                        if (swipingRight && mSwipeActionRight == SwipeListView.SWIPE_ACTION_DISMISS) {
-                            mSwipeCurrentAction = SwipeListView.SWIPE_ACTION_DISMISS;
-                        } else if (!swipingRight && mSwipeActionLeft == SwipeListView.SWIPE_ACTION_DISMISS) {
-                            mSwipeCurrentAction = SwipeListView.SWIPE_ACTION_DISMISS;
-                        } else if (swipingRight && mSwipeActionRight == SwipeListView.SWIPE_ACTION_CHECK) {
-                            mSwipeCurrentAction = SwipeListView.SWIPE_ACTION_CHECK;
-                        } else if (!swipingRight && mSwipeActionLeft == SwipeListView.SWIPE_ACTION_CHECK) {
-                            mSwipeCurrentAction = SwipeListView.SWIPE_ACTION_CHECK;
-                        } else {
-                            mSwipeCurrentAction = SwipeListView.SWIPE_ACTION_REVEAL;
-                        }
-                        mSwipeListView.onStartOpen(mDownPosition, mSwipeCurrentAction, swipingRight);
-                    }
-                    mSwipeListView.requestDisallowInterceptTouchEvent(true);
-                    MotionEvent cancelEvent = MotionEvent.obtain(motionEvent);
-                    cancelEvent.setAction(MotionEvent.ACTION_CANCEL |
-                            (MotionEventCompat.getActionIndex(motionEvent) << MotionEventCompat.ACTION_POINTER_INDEX_SHIFT));
-                    mSwipeListView.onTouchEvent(cancelEvent);
-                }
-
-                if (mSwiping) {
-                    if (mOpened.get(mDownPosition)) {
-                        deltaX += mOpenedRight.get(mDownPosition) ? mViewWidth - mRightOffset : -mViewWidth + mLeftOffset;
-                    }
-                    move(deltaX);
-                    return true;
-                }
-                break;
+                return actionMove(motionEvent);
             }
         }
         return false;
     }
 
+    /**
+     * Lets the parent refresh layout know the list is taking the touch
+     */
+    @Override
+    protected void onSwipeStarted() {
+        if (mRefreshSwipeListener != null) {
+            mRefreshSwipeListener.setScroll(true);
+        }
+    }
+
     public void setRefreshSwipeListener(RefreshSwipeListener refreshSwipeListener) {
         mRefreshSwipeListener = refreshSwipeListener;
     }
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview;
+
+import android.support.v4.view.MotionEventCompat;
+import android.view.MotionEvent;
+
+import com.fortysevendeg.android.swipelistview.core.SwipeTouchTrace;
+
+/**
+ * Ring buffer with the last touch events received by SwipeListView. Recording writes into
+ * preallocated arrays, once full the oldest events are overwritten.
+ */
+class SwipeTouchRecorder {
+
+    private final int[] mActions;
+    private final int[] mPointerIds;
+    private final float[] mRawX;
+    private final float[] mRawY;
+    private final long[] mEventTimes;
+    private int mCount = 0;
+    private int mNext = 0;
+
+    /**
+     * @param capacity Maximum number of events kept
+     */
+    SwipeTouchRecorder(int capacity) {
+        mActions = new int[capacity];
+        mPointerIds = new int[capacity];
+        mRawX = new float[capacity];
+        mRawY = new float[capacity];
+        mEventTimes = new long[capacity];
+    }
+
+    /**
+     * @param event Touch event received by the list
+     */
+    void record(MotionEvent event) {
+        int capacity = mActions.length;
+        if (capacity == 0) {
+            return;
+        }
+        mActions[mNext] = MotionEventCompat.getActionMasked(event);
+        mPointerIds[mNext] = MotionEventCompat.getPointerId(event, MotionEventCompat.getActionIndex(event));
+        mRawX[mNext] = event.getRawX();
+        mRawY[mNext] = event.getRawY();
+        mEventTimes[mNext] = event.getEventTime();
+        mNext = (mNext + 1) % capacity;
+        mCount = Math.min(mCount + 1, capacity);
+    }
+
+    /**
+     * Forgets every recorded event
+     */
+    void clear() {
+        mCount = 0;
+        mNext = 0;
+    }
+
+    /**
+     * @return the recorded events, oldest first
+     */
+    SwipeTouchTrace toTrace() {
+        SwipeTouchTrace trace = new SwipeTouchTrace(mCount);
+        int capacity = mActions.length;
+        int first = (mNext - mCount + capacity) % Math.max(capacity, 1);
+        for (int i = 0; i < mCount; i++) {
+            int index = (first + i) % capacity;
+            trace.set(i, mActions[index], mPointerIds[index], mRawX[index], mRawY[index], mEventTimes[index]);
+        }
+        return trace;
+    }
+}
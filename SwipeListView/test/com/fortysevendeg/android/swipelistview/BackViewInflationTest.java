@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview;
+
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Counts back view inflations instead of timing them: under Robolectric inflation times say
+ * nothing about a device, the number of inflated rows does.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(emulateSdk = 18)
+public class BackViewInflationTest {
+
+    private SwipeListView list;
+    private TestSwipeAdapter adapter;
+
+    @Before
+    public void setUp() {
+        list = TestSwipeAdapter.attachList(100);
+        adapter = TestSwipeAdapter.of(list);
+    }
+
+    @Test
+    public void layoutInflatesNoBackView() {
+        assertTrue(list.getChildCount() > 0);
+        assertEquals(0, adapter.backViewsInflated);
+        for (int i = 0; i < list.getChildCount(); i++) {
+            assertNull(SwipeAdapter.getViewHolder(list.getChildAt(i)).getBackView());
+        }
+    }
+
+    @Test
+    public void openingARowInflatesOnlyItsBackView() {
+        list.openAnimate(0, false);
+        assertEquals(1, adapter.backViewsInflated);
+        assertNotNull(SwipeAdapter.getViewHolder(list.getChildAt(0)).getBackView());
+        assertNull(SwipeAdapter.getViewHolder(list.getChildAt(1)).getBackView());
+    }
+
+    @Test
+    public void backViewIsInflatedOncePerRowView() {
+        list.openAnimate(0, false);
+        list.closeAnimate(0);
+        list.openAnimate(0, false);
+        TestSwipeAdapter.layout(list);
+        assertEquals(1, adapter.backViewsInflated);
+    }
+
+    @Test
+    public void openingAnOffScreenRowInflatesNothing() {
+        list.openAnimate(adapter.getCount() - 1, false);
+        assertEquals(0, adapter.backViewsInflated);
+        assertTrue(list.mTouchListener.isOpened(adapter.getCount() - 1));
+    }
+
+    @Test
+    public void openedRowShowsItsBackView() {
+        list.openAnimate(0, false);
+        View backView = SwipeAdapter.getViewHolder(list.getChildAt(0)).getBackView();
+        assertEquals(View.VISIBLE, backView.getVisibility());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(emulateSdk = 18)
+public class CheckedItemsListenerTest {
+
+    private SwipeListView list;
+    private List<String> changes;
+
+    @Before
+    public void setUp() {
+        list = TestSwipeAdapter.attachList(100);
+        changes = new ArrayList<String>();
+        list.setOnCheckedItemsChangedListener(new OnCheckedItemsChangedListener() {
+            @Override
+            public void onCheckedItemsChanged(int fromPosition, int toPosition, int checkedCount) {
+                changes.add(fromPosition + "-" + toPosition + " " + checkedCount);
+            }
+        });
+    }
+
+    @Test
+    public void everyChangeIsNotifiedOnce() {
+        list.setChecked(3, true);
+        list.setChecked(3, true);
+        list.checkRange(10, 20, true);
+        list.invertChecked();
+        list.uncheckAll();
+        assertEquals(Arrays.asList("3-4 1", "10-20 11", "0-100 89", "0-100 0"), changes);
+    }
+
+    @Test
+    public void swipeListenerIsNotNeeded() {
+        list.setSwipeListViewListener(null);
+        list.checkAll();
+        assertEquals(Arrays.asList("0-100 100"), changes);
+    }
+
+    @Test
+    public void removedListenerIsNotCalled() {
+        list.setOnCheckedItemsChangedListener(null);
+        list.setChecked(3, true);
+        assertEquals(0, changes.size());
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(emulateSdk = 18)
+public class CloseOpenedItemsTest {
+
+    private SwipeListView list;
+    private TestSwipeAdapter adapter;
+    private CountingBatchListener listener;
+
+    @Before
+    public void setUp() {
+        list = TestSwipeAdapter.attachList(1000);
+        adapter = TestSwipeAdapter.of(list);
+        listener = new CountingBatchListener();
+    }
+
+    @Test
+    public void nothingOpenFinishesWithoutScheduling() {
+        list.closeOpenedItems(listener);
+        assertFalse(list.isBatchRunning());
+        assertEquals(1, listener.finished);
+        assertEquals(0, listener.progress);
+    }
+
+    @Test
+    public void offScreenItemsAreClosedOverFrames() {
+        list.mTouchListener.setOpened(900, true, false);
+        list.closeOpenedItems(listener);
+        assertTrue(list.isBatchRunning());
+
+        Robolectric.runUiThreadTasksIncludingDelayedTasks();
+        assertFalse(list.isBatchRunning());
+        assertFalse(list.mTouchListener.isOpened(900));
+        assertEquals(1, listener.finished);
+        assertTrue(list.mTouchListener.allItemsClosed());
+    }
+
+    @Test
+    public void openCountFollowsStateChanges() {
+        SwipeListViewTouchListener touchListener = list.mTouchListener;
+        touchListener.setOpened(500, true, false);
+        touchListener.setOpened(600, true, true);
+        assertFalse(touchListener.allItemsClosed());
+
+        list.removeSwipeState(500);
+        assertFalse(touchListener.allItemsClosed());
+        list.moveSwipeState(599, 10);
+        assertTrue(touchListener.isOpened(10));
+
+        list.remapSwipeState(new int[]{0, 1, 2});
+        assertTrue(touchListener.allItemsClosed());
+
+        touchListener.setOpened(1, true, false);
+        touchListener.setOpened(1, true, false);
+        touchListener.setOpened(1, false, false);
+        assertTrue(touchListener.allItemsClosed());
+    }
+
+    @Test
+    public void cancelledBatchLeavesNothingPosted() {
+        list.mTouchListener.setOpened(900, true, false);
+        list.closeOpenedItems(listener);
+        list.resetOpened();
+        assertFalse(list.isBatchRunning());
+
+        Robolectric.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals(0, listener.finished);
+        assertEquals(0, listener.progress);
+    }
+
+    private static class CountingBatchListener implements BatchOperationListener {
+        int progress;
+        int finished;
+
+        @Override
+        public void onBatchProgress(int processed, int total) {
+            progress++;
+        }
+
+        @Override
+        public void onBatchFinished() {
+            finished++;
+        }
+    }
+}
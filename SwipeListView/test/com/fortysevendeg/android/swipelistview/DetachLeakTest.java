@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview;
+
+import android.app.Activity;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.lang.ref.WeakReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A list detached from its window must not be kept alive by the adapter, which usually
+ * outlives it, and must not keep the state of rows the adapter no longer has.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(emulateSdk = 18)
+public class DetachLeakTest {
+
+    private Activity activity;
+    private TestSwipeAdapter adapter;
+
+    @Before
+    public void setUp() {
+        activity = TestSwipeAdapter.startActivity();
+        adapter = new TestSwipeAdapter(activity, 100);
+    }
+
+    @Test
+    public void detachedListIsNotReachableFromTheAdapter() throws InterruptedException {
+        WeakReference<SwipeListView> reference = new WeakReference<SwipeListView>(attachOpenAndDetach());
+
+        for (int i = 0; i < 20 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+        assertEquals(0, adapter.observers);
+    }
+
+    @Test
+    public void observersFollowAttachment() {
+        SwipeListView list = createList();
+        activity.setContentView(list);
+        int attachedObservers = adapter.observers;
+        assertTrue(attachedObservers > 0);
+
+        activity.setContentView(new FrameLayout(activity));
+        assertEquals(0, adapter.observers);
+
+        activity.setContentView(list);
+        assertEquals(attachedObservers, adapter.observers);
+
+        list.setAdapter(null);
+        assertEquals(0, adapter.observers);
+    }
+
+    @Test
+    public void stateIsTrimmedWhenTheListShrankWhileDetached() {
+        SwipeListView list = createList();
+        activity.setContentView(list);
+        TestSwipeAdapter.layout(list);
+        list.mTouchListener.setOpened(80, true, true);
+        list.setChecked(90, true);
+
+        activity.setContentView(new FrameLayout(activity));
+        adapter.setCount(10);
+        activity.setContentView(list);
+
+        assertEquals(10, list.mTouchListener.mOpened.size());
+        assertEquals(10, list.mTouchListener.mOpenedRight.size());
+        assertTrue(list.mTouchListener.allItemsClosed());
+        assertEquals(0, list.getCheckedCount());
+        assertFalse(list.mTouchListener.isOpened(80));
+    }
+
+    @Test
+    public void stateIsTrimmedWhenTheAdapterShrinks() {
+        SwipeListView list = createList();
+        activity.setContentView(list);
+        list.mTouchListener.setOpened(50, true, false);
+
+        adapter.setCount(20);
+        assertEquals(20, list.mTouchListener.mOpened.size());
+        assertTrue(list.mTouchListener.allItemsClosed());
+
+        adapter.setCount(60);
+        assertFalse(list.mTouchListener.isOpened(50));
+    }
+
+    private SwipeListView attachOpenAndDetach() {
+        SwipeListView list = createList();
+        activity.setContentView(list);
+        TestSwipeAdapter.layout(list);
+        list.openAnimate(0, false);
+        activity.setContentView(new FrameLayout(activity));
+        return list;
+    }
+
+    private SwipeListView createList() {
+        SwipeListView list = new SwipeListView(activity, TestSwipeAdapter.BACK_VIEW, TestSwipeAdapter.FRONT_VIEW);
+        list.setAdapter(adapter);
+        return list;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview;
+
+import android.view.MotionEvent;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Event mask of the listener and onMove coalescing. The main looper is paused so a pending
+ * onMove is only delivered when a frame is run.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(emulateSdk = 18)
+public class ListenerEventsTest {
+
+    private final static float Y = TestSwipeAdapter.ROW_HEIGHT / 2;
+
+    private SwipeListView list;
+    private RecordingSwipeListener listener;
+
+    @Before
+    public void setUp() {
+        list = TestSwipeAdapter.attachList(100);
+        listener = new RecordingSwipeListener();
+    }
+
+    @After
+    public void tearDown() {
+        Robolectric.unPauseMainLooper();
+    }
+
+    @Test
+    public void eventsOutsideTheMaskAreNotDelivered() {
+        list.setSwipeListViewListener(listener, SwipeListView.EVENT_OPENED | SwipeListView.EVENT_CLOSED);
+        list.replayTouchTrace(TouchTraceReplayTest.swipe(400, 100, Y));
+        Robolectric.runUiThreadTasksIncludingDelayedTasks();
+        list.replayTouchTrace(TouchTraceReplayTest.swipe(100, 400, Y));
+        Robolectric.runUiThreadTasksIncludingDelayedTasks();
+
+        assertEquals(Arrays.asList("opened 0 false", "closed 0 false"), listener.events);
+        assertEquals(0, listener.swipeModeQueries);
+    }
+
+    @Test
+    public void swipeModeIsAskedOnlyWhenSubscribed() {
+        listener.swipeMode = SwipeListView.SWIPE_MODE_NONE;
+        list.setSwipeListViewListener(listener, SwipeListView.EVENT_ALL);
+        list.replayTouchTrace(TouchTraceReplayTest.swipe(400, 100, Y));
+        Robolectric.runUiThreadTasksIncludingDelayedTasks();
+        assertTrue(listener.swipeModeQueries > 0);
+        assertFalse(list.mTouchListener.isOpened(0));
+
+        listener.swipeModeQueries = 0;
+        list.setSwipeListViewListener(listener, SwipeListView.EVENT_ALL & ~SwipeListView.EVENT_CHANGE_SWIPE_MODE);
+        list.replayTouchTrace(TouchTraceReplayTest.swipe(400, 100, Y));
+        Robolectric.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals(0, listener.swipeModeQueries);
+        assertTrue(list.mTouchListener.isOpened(0));
+    }
+
+    @Test
+    public void pendingMoveIsDeliveredBeforeTheNextEvent() {
+        list.setSwipeListViewListener(listener);
+        list.setMoveEventsPerFrame(true);
+        Robolectric.pauseMainLooper();
+
+        dispatch(MotionEvent.ACTION_DOWN, 0, 400);
+        for (int i = 1; i <= 5; i++) {
+            dispatch(MotionEvent.ACTION_MOVE, 16 * i, 400 - 30 * i);
+        }
+        assertEquals(Arrays.asList("startOpen 0 false"), listener.events);
+
+        list.openAnimate(90, true);
+        assertEquals(Arrays.asList("startOpen 0 false", "move 0", "opened 90 true"), listener.events);
+
+        Robolectric.runUiThreadTasks();
+        assertEquals(1, listener.count("move 0"));
+    }
+
+    @Test
+    public void oneMoveIsDeliveredPerFrame() {
+        list.setSwipeListViewListener(listener);
+        list.setMoveEventsPerFrame(true);
+        Robolectric.pauseMainLooper();
+
+        dispatch(MotionEvent.ACTION_DOWN, 0, 400);
+        for (int i = 1; i <= 4; i++) {
+            dispatch(MotionEvent.ACTION_MOVE, 4 * i, 400 - 20 * i);
+        }
+        Robolectric.runUiThreadTasks();
+        assertEquals(1, listener.count("move 0"));
+
+        for (int i = 5; i <= 8; i++) {
+            dispatch(MotionEvent.ACTION_MOVE, 4 * i, 400 - 20 * i);
+        }
+        Robolectric.runUiThreadTasks();
+        assertEquals(2, listener.count("move 0"));
+
+        Robolectric.runUiThreadTasks();
+        assertEquals(2, listener.count("move 0"));
+    }
+
+    @Test
+    public void everyMoveIsDeliveredWithoutCoalescing() {
+        list.setSwipeListViewListener(listener);
+        Robolectric.pauseMainLooper();
+
+        dispatch(MotionEvent.ACTION_DOWN, 0, 400);
+        for (int i = 1; i <= 8; i++) {
+            dispatch(MotionEvent.ACTION_MOVE, 4 * i, 400 - 20 * i);
+        }
+        int moves = listener.count("move 0");
+        assertTrue(moves > 2);
+        assertEquals(listener.events.size() - 1, moves);
+    }
+
+    private void dispatch(int action, long offsetMillis, float x) {
+        MotionEvent event = MotionEvent.obtain(1000, 1000 + offsetMillis, action, x, Y, 0);
+        list.dispatchTouchEvent(event);
+        event.recycle();
+    }
+}
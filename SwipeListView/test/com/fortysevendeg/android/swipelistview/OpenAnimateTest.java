@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(emulateSdk = 18)
+public class OpenAnimateTest {
+
+    private SwipeListView list;
+    private RecordingSwipeListener listener;
+
+    @Before
+    public void setUp() {
+        list = TestSwipeAdapter.attachList(100);
+        listener = new RecordingSwipeListener();
+        list.setSwipeListViewListener(listener);
+    }
+
+    @Test
+    public void visibleRowIsOpenedOnceWhenTheAnimationEnds() {
+        list.openAnimate(2, true);
+        assertEquals(0, listener.count("opened 2 true"));
+
+        Robolectric.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals(1, listener.events.size());
+        assertEquals("opened 2 true", listener.events.get(0));
+        assertTrue(list.mTouchListener.isOpened(2));
+    }
+
+    @Test
+    public void directionIsKeptForTheClose() {
+        list.openAnimate(2, true);
+        Robolectric.runUiThreadTasksIncludingDelayedTasks();
+        list.closeAnimate(2);
+        Robolectric.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals("closed 2 true", listener.events.get(listener.events.size() - 1));
+
+        list.openAnimate(2, false);
+        Robolectric.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals("opened 2 false", listener.events.get(listener.events.size() - 1));
+    }
+
+    @Test
+    public void offScreenRowIsOpenedRightAway() {
+        list.openAnimate(90, true);
+        assertEquals(1, listener.events.size());
+        assertEquals("opened 90 true", listener.events.get(0));
+        assertTrue(list.mTouchListener.isOpened(90));
+
+        list.openAnimate(90, true);
+        Robolectric.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals(1, listener.events.size());
+    }
+
+    @Test
+    public void offScreenRowIsClosedRightAwayFromItsSide() {
+        list.openAnimate(90, true);
+        list.closeAnimate(90);
+        assertEquals(2, listener.events.size());
+        assertEquals("closed 90 true", listener.events.get(1));
+        assertFalse(list.mTouchListener.isOpened(90));
+        assertTrue(list.mTouchListener.allItemsClosed());
+
+        list.closeAnimate(90);
+        Robolectric.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals(2, listener.events.size());
+    }
+
+    @Test
+    public void openedRowIsNotOpenedAgain() {
+        list.openAnimate(2, false);
+        Robolectric.runUiThreadTasksIncludingDelayedTasks();
+        list.openAnimate(2, false);
+        Robolectric.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals(1, listener.count("opened 2 false"));
+        assertFalse(list.mTouchListener.allItemsClosed());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Listener keeping the reveal events it receives, as "opened 3 true". onChangeSwipeMode is
+ * only counted, it answers swipeMode.
+ */
+class RecordingSwipeListener extends BaseSwipeListViewListener {
+
+    final List<String> events = new ArrayList<String>();
+
+    int swipeMode = SwipeListView.SWIPE_MODE_DEFAULT;
+    int swipeModeQueries;
+
+    @Override
+    public void onStartOpen(int position, int action, boolean right) {
+        events.add("startOpen " + position + " " + right);
+    }
+
+    @Override
+    public void onMove(int position, float x) {
+        events.add("move " + position);
+    }
+
+    @Override
+    public void onOpened(int position, boolean toRight) {
+        events.add("opened " + position + " " + toRight);
+    }
+
+    @Override
+    public void onStartClose(int position, boolean right) {
+        events.add("startClose " + position + " " + right);
+    }
+
+    @Override
+    public void onClosed(int position, boolean fromRight) {
+        events.add("closed " + position + " " + fromRight);
+    }
+
+    @Override
+    public int onChangeSwipeMode(int position) {
+        swipeModeQueries++;
+        return swipeMode;
+    }
+
+    int count(String event) {
+        int count = 0;
+        for (String e : events) {
+            if (e.equals(event)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview;
+
+import android.os.Debug;
+
+import com.fortysevendeg.android.swipelistview.core.SwipeMetrics;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.util.Scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Holds swipes to a work budget. The main looper is run a frame at a time and the list is laid
+ * out in the frames that asked for it, as the view root does, so layout passes are counted per
+ * frame. Rows only request layout when their back view is shown or hidden, a dismiss lays the
+ * list out once per collapse frame, and handling a move event does not allocate.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(emulateSdk = 18)
+public class SwipeBudgetTest {
+
+    private final static int LAYOUT_REQUESTS_PER_SWIPE = 2;
+    private final static int LAYOUT_REQUESTS_PER_CLOSED_ROW = 1;
+    private final static int ALLOCATIONS_PER_MOVE = 0;
+
+    private final static long ANIMATION_MILLIS = 160;
+    private final static long FRAME_MILLIS = 16;
+    private final static int MAX_FRAMES = 200;
+
+    /**
+     * Frames of the row collapse, each may lay the list out once
+     */
+    private final static int COLLAPSE_FRAMES = (int) (ANIMATION_MILLIS / FRAME_MILLIS) + 1;
+
+    /**
+     * Layout passes of a dismiss besides the collapse: the adapter change made by onDismiss
+     */
+    private final static int DISMISS_EXTRA_LAYOUTS = 2;
+
+    private final static float Y = TestSwipeAdapter.ROW_HEIGHT / 2;
+
+    private SwipeListView list;
+
+    @Before
+    public void setUp() {
+        list = prepare(TestSwipeAdapter.attachList(50));
+        Debug.startAllocCounting();
+    }
+
+    @After
+    public void tearDown() {
+        Debug.stopAllocCounting();
+    }
+
+    @Test
+    public void openAndCloseStayWithinBudget() {
+        assertRevealBudget(list);
+    }
+
+    @Test
+    public void refreshListStaysWithinBudget() {
+        RefreshSwipeListView refreshList = new RefreshSwipeListView(TestSwipeAdapter.startActivity(),
+                TestSwipeAdapter.BACK_VIEW, TestSwipeAdapter.FRONT_VIEW);
+        assertRevealBudget(prepare(TestSwipeAdapter.attach(refreshList, 50)));
+    }
+
+    @Test
+    public void dismissLaysOutOncePerCollapseFrame() {
+        final TestSwipeAdapter adapter = TestSwipeAdapter.of(list);
+        list.setSwipeActionLeft(SwipeListView.SWIPE_ACTION_DISMISS);
+        list.setSwipeListViewListener(new BaseSwipeListViewListener() {
+            @Override
+            public void onDismiss(int[] reverseSortedPositions) {
+                adapter.setCount(adapter.getCount() - reverseSortedPositions.length);
+            }
+        });
+        list.resetMetrics();
+
+        swipe(list, 400, 100);
+        assertEquals(49, adapter.getCount());
+
+        SwipeMetrics metrics = list.getMetricsSnapshot();
+        long layoutPasses = metrics.getCounter(SwipeMetrics.COUNTER_LAYOUT_PASSES);
+        assertTrue(layoutPasses > 0);
+        assertTrue("layout passes " + layoutPasses, layoutPasses <= COLLAPSE_FRAMES + DISMISS_EXTRA_LAYOUTS);
+        assertTrue(metrics.getCounter(SwipeMetrics.COUNTER_LAYOUT_REQUESTS) <= layoutPasses + 1);
+        assertEquals(1, metrics.getHistogram(SwipeMetrics.METRIC_DISMISS_CALLBACK).getCount());
+    }
+
+    @Test
+    public void closeOpenedItemsStaysWithinBudget() {
+        int visibleRows = 5;
+        for (int position = 0; position < visibleRows; position++) {
+            list.openAnimate(position, false);
+        }
+        for (int position = 40; position < 50; position++) {
+            list.mTouchListener.setOpened(position, true, true);
+        }
+        runFrames(list);
+        list.resetMetrics();
+
+        list.closeOpenedItems();
+        runFrames(list);
+        assertTrue(list.mTouchListener.allItemsClosed());
+
+        SwipeMetrics metrics = list.getMetricsSnapshot();
+        long layoutRequests = metrics.getCounter(SwipeMetrics.COUNTER_LAYOUT_REQUESTS);
+        assertTrue("layout requests " + layoutRequests, layoutRequests <= visibleRows * LAYOUT_REQUESTS_PER_CLOSED_ROW);
+        assertTrue(metrics.getCounter(SwipeMetrics.COUNTER_LAYOUT_PASSES) <= layoutRequests);
+    }
+
+    @Test
+    public void moveEventsDoNotAllocate() {
+        // Robolectric does not count allocations; the budget is only checked where they are counted
+        assumeTrue(allocationsAreCounted());
+        swipe(list, 400, 100);
+        swipe(list, 100, 400);
+        list.resetMetrics();
+
+        swipe(list, 400, 100);
+        swipe(list, 100, 400);
+        SwipeMetrics metrics = list.getMetricsSnapshot();
+        assertTrue(metrics.getCounter(SwipeMetrics.COUNTER_MOVE_EVENTS) > 0);
+        assertTrue(metrics.getMaxMoveAllocations() <= ALLOCATIONS_PER_MOVE);
+    }
+
+    @Test
+    public void resetDropsCounters() {
+        swipe(list, 400, 100);
+        assertTrue(list.getMetricsSnapshot().getCounter(SwipeMetrics.COUNTER_MOVE_EVENTS) > 0);
+
+        list.resetMetrics();
+        SwipeMetrics metrics = list.getMetricsSnapshot();
+        assertEquals(0, metrics.getCounter(SwipeMetrics.COUNTER_MOVE_EVENTS));
+        assertEquals(0, metrics.getCounter(SwipeMetrics.COUNTER_LAYOUT_REQUESTS));
+        assertEquals(0, metrics.getCounter(SwipeMetrics.COUNTER_LAYOUT_PASSES));
+        assertEquals(0, metrics.getMaxMoveAllocations());
+        assertEquals(0, metrics.getHistogram(SwipeMetrics.METRIC_SWIPE_START).getCount());
+    }
+
+    @Test
+    public void resetWhileDisabledDoesNothing() {
+        list.setMetricsEnabled(false);
+        list.resetMetrics();
+        assertNull(list.getMetricsSnapshot());
+    }
+
+    /**
+     * Inflates the back view with a first open and close, then measures a second one
+     */
+    private static void assertRevealBudget(SwipeListView list) {
+        swipe(list, 400, 100);
+        swipe(list, 100, 400);
+        list.resetMetrics();
+
+        swipe(list, 400, 100);
+        assertTrue(list.mTouchListener.isOpened(0));
+        swipe(list, 100, 400);
+        assertTrue(list.mTouchListener.allItemsClosed());
+
+        SwipeMetrics metrics = list.getMetricsSnapshot();
+        assertEquals(2 * TouchTraceReplayTest.MOVES, metrics.getCounter(SwipeMetrics.COUNTER_MOVE_EVENTS));
+        long layoutRequests = metrics.getCounter(SwipeMetrics.COUNTER_LAYOUT_REQUESTS);
+        assertTrue("layout requests " + layoutRequests, layoutRequests <= 2 * LAYOUT_REQUESTS_PER_SWIPE);
+        assertTrue(metrics.getCounter(SwipeMetrics.COUNTER_LAYOUT_PASSES) <= layoutRequests);
+        assertEquals(2, metrics.getHistogram(SwipeMetrics.METRIC_SWIPE_START).getCount());
+    }
+
+    private static SwipeListView prepare(SwipeListView list) {
+        list.setAnimationTime(ANIMATION_MILLIS);
+        list.setMetricsEnabled(true);
+        return list;
+    }
+
+    private static void swipe(SwipeListView list, float fromX, float toX) {
+        list.replayTouchTrace(TouchTraceReplayTest.swipe(fromX, toX, Y));
+        runFrames(list);
+    }
+
+    /**
+     * Runs the main looper a frame at a time until nothing is left to run, laying the list out
+     * in the frames that asked for it
+     */
+    private static void runFrames(SwipeListView list) {
+        Scheduler scheduler = Robolectric.getUiThreadScheduler();
+        for (int i = 0; i < MAX_FRAMES && (scheduler.size() > 0 || list.isLayoutRequested()); i++) {
+            scheduler.advanceBy(FRAME_MILLIS);
+            if (list.isLayoutRequested()) {
+                TestSwipeAdapter.layout(list);
+            }
+        }
+    }
+
+    /**
+     * @return true if allocating a few objects moves the allocation counter
+     */
+    private static boolean allocationsAreCounted() {
+        int before = Debug.getThreadAllocCount();
+        Object[] objects = new Object[16];
+        for (int i = 0; i < objects.length; i++) {
+            objects[i] = new Object();
+        }
+        return Debug.getThreadAllocCount() - before >= objects.length;
+    }
+}
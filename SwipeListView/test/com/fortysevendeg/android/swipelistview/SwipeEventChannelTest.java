@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+
+public class SwipeEventChannelTest {
+
+    private List<Runnable> tasks;
+    private List<String> delivered;
+    private SwipeEventChannel channel;
+
+    @Before
+    public void setUp() {
+        tasks = new ArrayList<Runnable>();
+        delivered = new ArrayList<String>();
+        Executor executor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                tasks.add(command);
+            }
+        };
+        channel = new SwipeEventChannel(new BaseSwipeListViewListener() {
+            @Override
+            public void onOpened(int position, boolean toRight) {
+                delivered.add("opened " + position);
+            }
+
+            @Override
+            public void onMove(int position, float x) {
+                delivered.add("move " + position + " " + x);
+            }
+
+            @Override
+            public void onDismiss(int[] reverseSortedPositions) {
+                delivered.add("dismiss " + Arrays.toString(reverseSortedPositions));
+            }
+
+            @Override
+            public void onListChanged() {
+                delivered.add("listChanged");
+            }
+
+            @Override
+            public int onChangeSwipeMode(int position) {
+                return SwipeListView.SWIPE_MODE_LEFT;
+            }
+        }, executor, 8, SwipeEventChannel.OVERFLOW_THROW);
+    }
+
+    @Test
+    public void everyEventIsSubscribed() {
+        assertEquals(SwipeListView.EVENT_ALL, channel.getEvents());
+    }
+
+    @Test
+    public void queuedEventsWaitForTheExecutor() {
+        channel.onOpened(3, true);
+        assertEquals(0, delivered.size());
+        runTasks();
+        assertEquals(Arrays.asList("opened 3"), delivered);
+    }
+
+    @Test
+    public void dataEventsAreDeliveredSynchronously() {
+        channel.onOpened(1, false);
+        channel.onDismiss(new int[]{4, 2});
+        channel.onListChanged();
+        assertEquals(Arrays.asList("dismiss [4, 2]", "listChanged"), delivered);
+        assertEquals(SwipeListView.SWIPE_MODE_LEFT, channel.onChangeSwipeMode(0));
+
+        runTasks();
+        assertEquals("opened 1", delivered.get(delivered.size() - 1));
+    }
+
+    @Test
+    public void movesOfARowAreCoalesced() {
+        channel.onMove(2, 10f);
+        channel.onMove(2, 20f);
+        channel.onMove(5, 30f);
+        runTasks();
+        assertEquals(Arrays.asList("move 2 20.0", "move 5 30.0"), delivered);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void fullQueueThrows() {
+        for (int i = 0; i < 9; i++) {
+            channel.onOpened(i, false);
+        }
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+}
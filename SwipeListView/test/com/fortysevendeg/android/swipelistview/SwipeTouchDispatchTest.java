@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview;
+
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewConfiguration;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Every touch event must reach the swipe touch listener exactly once, whether the list
+ * intercepts it, handles it itself or both.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(emulateSdk = 18)
+public class SwipeTouchDispatchTest {
+
+    private SwipeListView list;
+    private CountingTouchListener touchListener;
+    private long downTime;
+
+    @Before
+    public void setUp() {
+        list = new SwipeListView(TestSwipeAdapter.startActivity(), TestSwipeAdapter.BACK_VIEW, TestSwipeAdapter.FRONT_VIEW);
+        touchListener = new CountingTouchListener(list);
+        list.mTouchListener = touchListener;
+        TestSwipeAdapter.attach(list, 100);
+        downTime = 1000;
+    }
+
+    @Test
+    public void listAndListenerShareTheTouchSlop() {
+        int touchSlop = ViewConfiguration.get(list.getContext()).getScaledTouchSlop();
+        assertEquals(touchSlop, list.mTouchListener.getSlop());
+        assertEquals(touchSlop, list.mTouchSlop);
+    }
+
+    @Test
+    public void downOnARowIsHandledOnce() {
+        dispatch(MotionEvent.ACTION_DOWN, 0, 100, 25);
+        assertEquals(1, touchListener.calls[MotionEvent.ACTION_DOWN]);
+    }
+
+    @Test
+    public void everyEventOfASwipeIsHandledOnce() {
+        dispatch(MotionEvent.ACTION_DOWN, 0, 100, 25);
+        for (int i = 1; i <= 10; i++) {
+            dispatch(MotionEvent.ACTION_MOVE, i * 16, 100 + i * 20, 25);
+        }
+        dispatch(MotionEvent.ACTION_UP, 176, 300, 25);
+
+        assertEquals(1, touchListener.calls[MotionEvent.ACTION_DOWN]);
+        assertEquals(10, touchListener.calls[MotionEvent.ACTION_MOVE]);
+        assertEquals(1, touchListener.calls[MotionEvent.ACTION_UP]);
+    }
+
+    @Test
+    public void everyEventOfAScrollIsHandledOnce() {
+        dispatch(MotionEvent.ACTION_DOWN, 0, 100, 25);
+        for (int i = 1; i <= 10; i++) {
+            dispatch(MotionEvent.ACTION_MOVE, i * 16, 100, 25 + i * 20);
+        }
+        dispatch(MotionEvent.ACTION_UP, 176, 100, 225);
+
+        assertEquals(1, touchListener.calls[MotionEvent.ACTION_DOWN]);
+        assertEquals(10, touchListener.calls[MotionEvent.ACTION_MOVE]);
+        assertEquals(1, touchListener.calls[MotionEvent.ACTION_UP]);
+    }
+
+    @Test
+    public void distinctEventsWithTheSameTimeAndActionAreBothHandled() {
+        dispatch(MotionEvent.ACTION_DOWN, 0, 100, 25);
+        dispatch(MotionEvent.ACTION_MOVE, 16, 104, 25);
+        dispatch(MotionEvent.ACTION_MOVE, 16, 110, 25);
+        assertEquals(2, touchListener.calls[MotionEvent.ACTION_MOVE]);
+    }
+
+    @Test
+    public void reusedEventObjectIsHandledAgain() {
+        MotionEvent event = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, 100, 25, 0);
+        list.dispatchTouchEvent(event);
+        event.setAction(MotionEvent.ACTION_MOVE);
+        event.setLocation(104, 25);
+        list.dispatchTouchEvent(event);
+        event.setLocation(108, 25);
+        list.dispatchTouchEvent(event);
+        event.recycle();
+
+        assertEquals(1, touchListener.calls[MotionEvent.ACTION_DOWN]);
+        assertEquals(2, touchListener.calls[MotionEvent.ACTION_MOVE]);
+    }
+
+    private void dispatch(int action, long offsetMillis, float x, float y) {
+        MotionEvent event = MotionEvent.obtain(downTime, downTime + offsetMillis, action, x, y, 0);
+        list.dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+    private static class CountingTouchListener extends SwipeListViewTouchListener {
+        final int[] calls = new int[MotionEvent.ACTION_CANCEL + 1];
+
+        CountingTouchListener(SwipeListView list) {
+            super(list, TestSwipeAdapter.FRONT_VIEW, TestSwipeAdapter.BACK_VIEW);
+        }
+
+        @Override
+        public boolean onTouch(View view, MotionEvent motionEvent) {
+            calls[motionEvent.getActionMasked()]++;
+            return super.onTouch(view, motionEvent);
+        }
+    }
+}
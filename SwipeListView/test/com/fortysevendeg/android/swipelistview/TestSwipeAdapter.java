@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview;
+
+import android.app.Activity;
+import android.content.Context;
+import android.database.DataSetObserver;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewStub;
+import android.widget.AbsListView;
+import android.widget.FrameLayout;
+
+import org.robolectric.Robolectric;
+
+/**
+ * Adapter of fixed height rows built in code, with the back view declared as a ViewStub
+ */
+class TestSwipeAdapter extends SwipeAdapter<SwipeAdapter.ViewHolder> {
+
+    static final int FRONT_VIEW = 0x7f0f0001;
+    static final int BACK_VIEW = 0x7f0f0002;
+
+    static final int ROW_HEIGHT = 50;
+    static final int LIST_WIDTH = 480;
+    static final int LIST_HEIGHT = 800;
+
+    private final Context context;
+    private int count;
+
+    int backViewsInflated;
+    int observers;
+
+    TestSwipeAdapter(Context context, int count) {
+        this.context = context;
+        this.count = count;
+    }
+
+    void setCount(int count) {
+        this.count = count;
+        notifyDataSetChanged();
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public Object getItem(int position) {
+        return position;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return position;
+    }
+
+    @Override
+    public void registerDataSetObserver(DataSetObserver observer) {
+        super.registerDataSetObserver(observer);
+        observers++;
+    }
+
+    @Override
+    public void unregisterDataSetObserver(DataSetObserver observer) {
+        super.unregisterDataSetObserver(observer);
+        observers--;
+    }
+
+    @Override
+    protected ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        FrameLayout row = new FrameLayout(context);
+        row.setLayoutParams(new AbsListView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ROW_HEIGHT));
+        ViewStub back = new ViewStub(context, android.R.layout.simple_list_item_1);
+        back.setId(BACK_VIEW);
+        back.setInflatedId(BACK_VIEW);
+        row.addView(back);
+        View front = new FrameLayout(context);
+        front.setId(FRONT_VIEW);
+        row.addView(front, new FrameLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ROW_HEIGHT));
+        return new ViewHolder(row);
+    }
+
+    @Override
+    protected void onBindViewHolder(ViewHolder holder, int position) {
+    }
+
+    @Override
+    protected void onBackViewInflated(ViewHolder holder, View backView) {
+        backViewsInflated++;
+    }
+
+    /**
+     * @return a resumed, visible activity to show a list in
+     */
+    static Activity startActivity() {
+        return Robolectric.buildActivity(Activity.class).create().start().resume().visible().get();
+    }
+
+    /**
+     * Starts an activity showing a laid out list of count rows
+     */
+    static SwipeListView attachList(int count) {
+        return attach(new SwipeListView(startActivity(), BACK_VIEW, FRONT_VIEW), count);
+    }
+
+    /**
+     * Sets an adapter of count rows on the list, shows it in its activity and lays it out
+     */
+    static <T extends SwipeListView> T attach(T list, int count) {
+        list.setAdapter(new TestSwipeAdapter(list.getContext(), count));
+        ((Activity) list.getContext()).setContentView(list);
+        layout(list);
+        return list;
+    }
+
+    /**
+     * @return the adapter of a list built by attachList
+     */
+    static TestSwipeAdapter of(SwipeListView list) {
+        return (TestSwipeAdapter) list.getWrappedAdapter();
+    }
+
+    /**
+     * Measures and lays out the list at a phone screen size
+     */
+    static void layout(SwipeListView list) {
+        list.measure(View.MeasureSpec.makeMeasureSpec(LIST_WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(LIST_HEIGHT, View.MeasureSpec.EXACTLY));
+        list.layout(0, 0, LIST_WIDTH, LIST_HEIGHT);
+    }
+}
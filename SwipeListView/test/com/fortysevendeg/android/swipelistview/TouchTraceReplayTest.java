@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview;
+
+import android.view.MotionEvent;
+
+import com.fortysevendeg.android.swipelistview.core.SwipeTouchTrace;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(emulateSdk = 18)
+public class TouchTraceReplayTest {
+
+    final static int MOVES = 10;
+
+    private SwipeListView list;
+    private RecordingSwipeListener listener;
+
+    @Before
+    public void setUp() {
+        list = TestSwipeAdapter.attachList(20);
+        listener = new RecordingSwipeListener();
+        list.setSwipeListViewListener(listener);
+    }
+
+    @Test
+    public void swipeToTheLeftOpensOnce() throws IOException {
+        SwipeTouchTrace trace = readBack(swipe(400, 100, TestSwipeAdapter.ROW_HEIGHT / 2));
+        long[] processingNanos = list.replayTouchTrace(trace);
+        assertEquals(trace.size(), processingNanos.length);
+
+        assertEquals("startOpen 0 false", listener.events.get(0));
+        assertTrue(listener.events.size() > 1);
+        for (String event : listener.events.subList(1, listener.events.size())) {
+            assertEquals("move 0", event);
+        }
+
+        Robolectric.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals("opened 0 false", listener.events.get(listener.events.size() - 1));
+        assertEquals(1, listener.count("opened 0 false"));
+        assertTrue(list.mTouchListener.isOpened(0));
+    }
+
+    @Test
+    public void swipeBackClosesTheOpenedRow() {
+        list.replayTouchTrace(swipe(400, 100, TestSwipeAdapter.ROW_HEIGHT / 2));
+        Robolectric.runUiThreadTasksIncludingDelayedTasks();
+        listener.events.clear();
+
+        list.replayTouchTrace(swipe(100, 400, TestSwipeAdapter.ROW_HEIGHT / 2));
+        Robolectric.runUiThreadTasksIncludingDelayedTasks();
+        assertEquals("startClose 0 true", listener.events.get(0));
+        assertEquals("closed 0 false", listener.events.get(listener.events.size() - 1));
+        assertEquals(0, listener.count("opened 0 false"));
+        assertFalse(list.mTouchListener.isOpened(0));
+    }
+
+    @Test
+    public void replayedEventsAreNotRecorded() {
+        list.setTouchRecording(64);
+        list.replayTouchTrace(swipe(400, 100, TestSwipeAdapter.ROW_HEIGHT / 2));
+        assertEquals(0, list.getTouchTrace().size());
+    }
+
+    @Test
+    public void clearingKeepsRecording() {
+        list.setTouchRecording(64);
+        dispatch(MotionEvent.ACTION_DOWN, 1000);
+        dispatch(MotionEvent.ACTION_UP, 1016);
+        assertEquals(2, list.getTouchTrace().size());
+
+        list.clearTouchTrace();
+        assertEquals(0, list.getTouchTrace().size());
+        dispatch(MotionEvent.ACTION_DOWN, 1100);
+        assertEquals(1, list.getTouchTrace().size());
+        assertEquals(MotionEvent.ACTION_DOWN, list.getTouchTrace().getAction(0));
+
+        list.setTouchRecording(0);
+        assertNull(list.getTouchTrace());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void recordingCapacityIsBounded() {
+        list.setTouchRecording(SwipeTouchTrace.MAX_SIZE + 1);
+    }
+
+    private void dispatch(int action, long time) {
+        MotionEvent event = MotionEvent.obtain(1000, time, action, 240, TestSwipeAdapter.ROW_HEIGHT / 2, 0);
+        list.dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+    /**
+     * Horizontal swipe on the row under y: a down, MOVES moves a frame apart and an up
+     */
+    static SwipeTouchTrace swipe(float fromX, float toX, float y) {
+        SwipeTouchTrace trace = new SwipeTouchTrace(MOVES + 2);
+        trace.set(0, MotionEvent.ACTION_DOWN, 0, fromX, y, 1000);
+        for (int i = 1; i <= MOVES; i++) {
+            trace.set(i, MotionEvent.ACTION_MOVE, 0, fromX + (toX - fromX) * i / MOVES, y, 1000 + 16 * i);
+        }
+        trace.set(MOVES + 1, MotionEvent.ACTION_UP, 0, toX, y, 1000 + 16 * (MOVES + 1));
+        return trace;
+    }
+
+    private static SwipeTouchTrace readBack(SwipeTouchTrace trace) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        trace.writeTo(out);
+        SwipeTouchTrace read = SwipeTouchTrace.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        assertNotNull(read);
+        return read;
+    }
+}
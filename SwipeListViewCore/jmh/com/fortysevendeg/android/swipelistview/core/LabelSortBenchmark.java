@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Sorting application labels the way the sample does, on precomputed CollationKeys, against
+ * calling Collator.compare on every comparison as ApplicationInfo.DisplayNameComparator does.
+ * The locale is fixed so results do not depend on the machine.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+public class LabelSortBenchmark {
+
+    private final static long SEED = 47;
+    private final static String LETTERS = "abcdefghijklmnopqrstuvwxyz\u00e1\u00e9\u00ed\u00f3\u00fa\u00f1\u00e7ABCDEFGHIJKLMNOPQRSTUVWXYZ ";
+
+    @Param({"100", "1000", "10000"})
+    public int labels;
+
+    private Collator mCollator;
+    private String[] mLabels;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(SEED);
+        mCollator = Collator.getInstance(Locale.US);
+        mLabels = new String[labels];
+        for (int i = 0; i < labels; i++) {
+            char[] label = new char[4 + random.nextInt(16)];
+            for (int j = 0; j < label.length; j++) {
+                label[j] = LETTERS.charAt(random.nextInt(LETTERS.length()));
+            }
+            mLabels[i] = new String(label);
+        }
+    }
+
+    @Benchmark
+    public String[] collatorCompare() {
+        String[] sorted = mLabels.clone();
+        Arrays.sort(sorted, new Comparator<String>() {
+            @Override
+            public int compare(String lhs, String rhs) {
+                return mCollator.compare(lhs, rhs);
+            }
+        });
+        return sorted;
+    }
+
+    @Benchmark
+    public CollationKey[] collationKeys() {
+        CollationKey[] keys = new CollationKey[labels];
+        for (int i = 0; i < labels; i++) {
+            keys[i] = mCollator.getCollationKey(mLabels[i]);
+        }
+        Arrays.sort(keys);
+        return keys;
+    }
+}
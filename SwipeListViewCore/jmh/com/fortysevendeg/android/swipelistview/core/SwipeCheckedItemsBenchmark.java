@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * State store operations at different list sizes. Every benchmark leaves the store with the
+ * same size, so iterations measure the same work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+public class SwipeCheckedItemsBenchmark {
+
+    private final static long SEED = 47;
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private SwipeCheckedItems mChecked;
+    private int[] mPositions;
+    private int mNext;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(SEED);
+        mChecked = new SwipeCheckedItems();
+        mChecked.setSize(rows);
+        for (int i = 0; i < rows; i++) {
+            mChecked.set(i, random.nextBoolean());
+        }
+        mPositions = new int[1024];
+        for (int i = 0; i < mPositions.length; i++) {
+            mPositions[i] = random.nextInt(rows);
+        }
+    }
+
+    private int nextPosition() {
+        mNext = (mNext + 1) & (mPositions.length - 1);
+        return mPositions[mNext];
+    }
+
+    @Benchmark
+    public boolean toggle() {
+        int position = nextPosition();
+        return mChecked.set(position, !mChecked.get(position));
+    }
+
+    @Benchmark
+    public int checkAll() {
+        mChecked.setRange(0, rows, true);
+        return mChecked.getCount();
+    }
+
+    @Benchmark
+    public int invert() {
+        mChecked.invert();
+        return mChecked.getCount();
+    }
+
+    @Benchmark
+    public int[] checkedPositions() {
+        return mChecked.toArray();
+    }
+
+    @Benchmark
+    public int insertAndRemove() {
+        int position = nextPosition();
+        mChecked.insert(position);
+        mChecked.remove(position);
+        return mChecked.size();
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Bookkeeping of a batch of dismissed rows, as SwipeListViewTouchListener.removeItem does for
+ * each dismissed position, in descending order, before onDismiss: the opened and opened-right
+ * lists and the checked items lose the row. Rows are then inserted back at the same positions so
+ * every invocation works on a list of the same size; the insertion is part of the measured time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+public class SwipeDismissBenchmark {
+
+    private final static long SEED = 47;
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"1", "16", "256"})
+    public int batch;
+
+    private SwipeCheckedItems mChecked;
+    private List<Boolean> mOpened;
+    private List<Boolean> mOpenedRight;
+    private int[] mDismissed;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(SEED);
+        mChecked = new SwipeCheckedItems();
+        mChecked.setSize(rows);
+        mOpened = new ArrayList<Boolean>(rows);
+        mOpenedRight = new ArrayList<Boolean>(rows);
+        for (int i = 0; i < rows; i++) {
+            mChecked.set(i, random.nextBoolean());
+            mOpened.add(false);
+            mOpenedRight.add(false);
+        }
+        mDismissed = new int[batch];
+        for (int i = 0; i < batch; i++) {
+            mDismissed[i] = random.nextInt(rows);
+        }
+        Arrays.sort(mDismissed);
+    }
+
+    @Benchmark
+    public int dismissBatch() {
+        for (int i = mDismissed.length - 1; i >= 0; i--) {
+            int position = mDismissed[i];
+            mOpened.remove(position);
+            mOpenedRight.remove(position);
+            mChecked.remove(position);
+        }
+        for (int i = 0; i < mDismissed.length; i++) {
+            int position = mDismissed[i];
+            mOpened.add(position, false);
+            mOpenedRight.add(position, false);
+            mChecked.insert(position);
+        }
+        return mChecked.getCount();
+    }
+}
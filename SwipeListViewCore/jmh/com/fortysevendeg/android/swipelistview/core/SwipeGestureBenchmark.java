@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Throughput of the per move event gesture decisions: swipe classification and touch
+ * prediction, over a fixed set of generated moves.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+public class SwipeGestureBenchmark {
+
+    private final static long SEED = 47;
+    private final static int MOVES = 4096;
+    private final static int SLOP = 24;
+
+    private SwipeIntentDetector mIntentDetector;
+    private SwipeTouchPredictor mTouchPredictor;
+    private final float[] mDeltaX = new float[MOVES];
+    private final float[] mDeltaY = new float[MOVES];
+    private final float[] mVelocityX = new float[MOVES];
+    private final float[] mVelocityY = new float[MOVES];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(SEED);
+        mIntentDetector = new SwipeIntentDetector(SLOP);
+        mTouchPredictor = new SwipeTouchPredictor();
+        mTouchPredictor.setMaxOffset(SLOP);
+        for (int i = 0; i < MOVES; i++) {
+            mDeltaX[i] = (random.nextFloat() - 0.5f) * 4 * SLOP;
+            mDeltaY[i] = (random.nextFloat() - 0.5f) * 4 * SLOP;
+            mVelocityX[i] = random.nextFloat() * 3000;
+            mVelocityY[i] = random.nextFloat() * 3000;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MOVES)
+    public int classify() {
+        int swipes = 0;
+        for (int i = 0; i < MOVES; i++) {
+            if (mIntentDetector.isSwipe(mDeltaX[i], mDeltaY[i], mVelocityX[i], mVelocityY[i])) {
+                swipes++;
+            }
+        }
+        return swipes;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MOVES)
+    public float predict() {
+        mTouchPredictor.reset();
+        float position = 0;
+        float offset = 0;
+        for (int i = 0; i < MOVES; i++) {
+            long time = i * 8L;
+            position += mDeltaX[i] / 8;
+            mTouchPredictor.addSample(time, position);
+            offset += mTouchPredictor.predictOffset(time + SwipeTouchPredictor.DEFAULT_HORIZON_MILLIS);
+        }
+        return offset;
+    }
+}
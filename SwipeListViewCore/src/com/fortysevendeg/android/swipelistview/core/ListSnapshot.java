@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Immutable copy of a displayed list (keys, labels, order and swipe state) that can be
+ * stored in a compact binary file and read back synchronously on startup, so the list
+ * can be rendered before the real data source has been queried.
+ *
+ * File layout: magic, version, row count, rows (state byte, key, label) and a CRC32 of
+ * everything before it. Files with another version or a bad checksum are discarded.
+ */
+public class ListSnapshot {
+
+    /**
+     * Row swipe state: row is opened
+     */
+    public final static int STATE_OPENED = 1;
+
+    /**
+     * Row swipe state: row is opened toward the right
+     */
+    public final static int STATE_OPENED_RIGHT = 2;
+
+    /**
+     * Row swipe state: row is checked
+     */
+    public final static int STATE_CHECKED = 4;
+
+    private final static int MAGIC = 0x534c5653; // "SLVS"
+
+    /**
+     * Current file format version
+     */
+    final static int VERSION = 1;
+
+    private final static int HEADER_SIZE = 12;
+
+    private final static int CHECKSUM_SIZE = 4;
+
+    private final static String CHARSET = "UTF-8";
+
+    private final String[] mKeys;
+    private final String[] mLabels;
+    private final int[] mStates;
+
+    /**
+     * Constructor
+     * @param keys Stable key of each row
+     * @param labels Label of each row
+     * @param states Swipe state of each row, a combination of STATE_OPENED, STATE_OPENED_RIGHT and STATE_CHECKED
+     */
+    public ListSnapshot(String[] keys, String[] labels, int[] states) {
+        if (keys.length != labels.length || keys.length != states.length) {
+            throw new IllegalArgumentException("keys, labels and states must have the same length");
+        }
+        mKeys = keys;
+        mLabels = labels;
+        mStates = states;
+    }
+
+    public int getCount() {
+        return mKeys.length;
+    }
+
+    public String getKey(int position) {
+        return mKeys[position];
+    }
+
+    public String getLabel(int position) {
+        return mLabels[position];
+    }
+
+    public int getState(int position) {
+        return mStates[position];
+    }
+
+    /**
+     * Reads a snapshot through a read-only memory mapping of the file
+     * @param file Snapshot file
+     * @return the snapshot, or null if the file does not exist, was written with another
+     * format version or is corrupt. Unusable files are deleted.
+     */
+    public static ListSnapshot read(File file) {
+        if (!file.exists()) {
+            return null;
+        }
+        RandomAccessFile raf = null;
+        ListSnapshot snapshot = null;
+        try {
+            raf = new RandomAccessFile(file, "r");
+            FileChannel channel = raf.getChannel();
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            snapshot = decode(buffer);
+        } catch (IOException e) {
+            snapshot = null;
+        } finally {
+            if (raf != null) {
+                try {
+                    raf.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+        if (snapshot == null) {
+            file.delete();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Writes the snapshot. The file is replaced atomically so a crash while writing
+     * leaves the previous snapshot intact.
+     * @param file Snapshot file
+     * @throws IOException if the file could not be written
+     */
+    public void write(File file) throws IOException {
+        byte[] data = encode();
+        File tmp = new File(file.getPath() + ".tmp");
+        FileOutputStream out = new FileOutputStream(tmp);
+        try {
+            out.write(data);
+            out.getFD().sync();
+        } finally {
+            out.close();
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("Unable to replace " + file);
+        }
+    }
+
+    /**
+     * Maps every key of a new list to its position in an old list
+     * @param oldKeys Keys of the list currently displayed
+     * @param newKeys Keys of the list that replaces it
+     * @return for each new position, the old position of the same key or -1 if the row is new
+     */
+    public static int[] mapPositions(String[] oldKeys, String[] newKeys) {
+        Map<String, Integer> oldPositions = new HashMap<String, Integer>(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            oldPositions.put(oldKeys[i], i);
+        }
+        int[] result = new int[newKeys.length];
+        for (int i = 0; i < newKeys.length; i++) {
+            Integer oldPosition = oldPositions.get(newKeys[i]);
+            result[i] = oldPosition != null ? oldPosition : -1;
+        }
+        return result;
+    }
+
+    byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(HEADER_SIZE + mKeys.length * 32);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(mKeys.length);
+        for (int i = 0; i < mKeys.length; i++) {
+            out.writeByte(mStates[i]);
+            writeString(out, mKeys[i]);
+            writeString(out, mLabels[i]);
+        }
+        out.flush();
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeInt((int) crc.getValue());
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    static ListSnapshot decode(ByteBuffer buffer) {
+        int size = buffer.remaining();
+        if (size < HEADER_SIZE + CHECKSUM_SIZE) {
+            return null;
+        }
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            byte[] content = new byte[size - CHECKSUM_SIZE];
+            buffer.position(0);
+            buffer.get(content);
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            if (buffer.getInt() != (int) crc.getValue()) {
+                return null;
+            }
+
+            buffer.position(HEADER_SIZE - 4);
+            int count = buffer.getInt();
+            // Every row takes at least five bytes, reject impossible counts before allocating
+            if (count < 0 || count > (size - HEADER_SIZE - CHECKSUM_SIZE) / 5) {
+                return null;
+            }
+            String[] keys = new String[count];
+            String[] labels = new String[count];
+            int[] states = new int[count];
+            for (int i = 0; i < count; i++) {
+                states[i] = buffer.get() & (STATE_OPENED | STATE_OPENED_RIGHT | STATE_CHECKED);
+                keys[i] = readString(buffer);
+                labels[i] = readString(buffer);
+            }
+            if (buffer.position() != size - CHECKSUM_SIZE) {
+                return null;
+            }
+            return new ListSnapshot(keys, labels, states);
+        } catch (BufferUnderflowException e) {
+            return null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(CHARSET);
+        if (bytes.length > 0xffff) {
+            throw new IOException("String too long for snapshot: " + bytes.length + " bytes");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) throws IOException {
+        int length = buffer.getShort() & 0xffff;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, CHARSET);
+    }
+}
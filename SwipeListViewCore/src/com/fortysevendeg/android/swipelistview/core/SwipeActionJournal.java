@@ -0,0 +1,450 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview.core;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * Write-behind journal of the actions committed on a SwipeListView (dismisses, checks, opens
+ * and closes), enabled with SwipeListView.setActionJournal. Opens and closes keep their
+ * direction, see {@link Batch#isRight(int)}.
+ *
+ * Appending only copies the action to a memory buffer, so the list updates at once. A background
+ * thread takes the buffer every flush interval, or as soon as it holds flushSize actions,
+ * appends the whole group to the journal file with a single write and sync, and then hands it to
+ * the {@link Store} in one call, where the application can apply it in one database transaction.
+ * The file is emptied once the store has accepted everything in it. Actions that reached the
+ * file but not the store, because the process died or the store failed, are handed to the
+ * store again the next time a journal is started on the same file, before any new action.
+ *
+ * While the store fails, every group commit hands it all the actions it has not accepted yet,
+ * and they stay in memory (about 24 bytes each) and in the file until it does. A store that
+ * keeps failing is reported by {@link #flush()}; close the journal if it cannot recover.
+ */
+public class SwipeActionJournal {
+
+    public final static int ACTION_DISMISS = 0;
+    public final static int ACTION_CHECK = 1;
+    public final static int ACTION_UNCHECK = 2;
+    public final static int ACTION_OPEN = 3;
+    public final static int ACTION_CLOSE = 4;
+
+    /**
+     * Default time between two group commits
+     */
+    public final static long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+
+    /**
+     * Default number of buffered actions that starts a group commit at once
+     */
+    public final static int DEFAULT_FLUSH_SIZE = 64;
+
+    /**
+     * Size of an action in the journal file
+     */
+    private final static int RECORD_SIZE = 17;
+
+    /**
+     * Bit of the stored action byte set for actions toward the right
+     */
+    private final static int FLAG_RIGHT = 0x80;
+
+    /**
+     * Destination of the journaled actions, called on the journal thread
+     */
+    public interface Store {
+
+        /**
+         * Applies a group of actions, in the order they were committed. Throwing keeps the
+         * actions in the journal, they are handed again with the next group, and makes the
+         * pending flush() throw.
+         * @param batch Actions to apply, only valid during the call
+         * @throws Exception if the actions could not be stored
+         */
+        void apply(Batch batch) throws Exception;
+    }
+
+    /**
+     * Group of actions handed to the store
+     */
+    public static class Batch {
+
+        private int[] mActions = new int[DEFAULT_FLUSH_SIZE];
+        private int[] mFromPositions = new int[DEFAULT_FLUSH_SIZE];
+        private int[] mToPositions = new int[DEFAULT_FLUSH_SIZE];
+        private long[] mTimes = new long[DEFAULT_FLUSH_SIZE];
+        private int mSize = 0;
+
+        /**
+         * @return number of actions
+         */
+        public int size() {
+            return mSize;
+        }
+
+        /**
+         * @param index Index of action
+         * @return one of ACTION_*
+         */
+        public int getAction(int index) {
+            return mActions[index] & ~FLAG_RIGHT;
+        }
+
+        /**
+         * @param index Index of action
+         * @return true if an open was toward the right or a close was from the right
+         */
+        public boolean isRight(int index) {
+            return (mActions[index] & FLAG_RIGHT) != 0;
+        }
+
+        /**
+         * @param index Index of action
+         * @return first position the action applies to, inclusive
+         */
+        public int getFromPosition(int index) {
+            return mFromPositions[index];
+        }
+
+        /**
+         * @param index Index of action
+         * @return last position the action applies to, exclusive
+         */
+        public int getToPosition(int index) {
+            return mToPositions[index];
+        }
+
+        /**
+         * @param index Index of action
+         * @return time the action was committed, in System.currentTimeMillis base
+         */
+        public long getTime(int index) {
+            return mTimes[index];
+        }
+
+        void add(int action, int fromPosition, int toPosition, long time) {
+            if (mSize == mActions.length) {
+                int capacity = mSize * 2;
+                mActions = copyOf(mActions, capacity);
+                mFromPositions = copyOf(mFromPositions, capacity);
+                mToPositions = copyOf(mToPositions, capacity);
+                long[] times = new long[capacity];
+                System.arraycopy(mTimes, 0, times, 0, mSize);
+                mTimes = times;
+            }
+            mActions[mSize] = action;
+            mFromPositions[mSize] = fromPosition;
+            mToPositions[mSize] = toPosition;
+            mTimes[mSize] = time;
+            mSize++;
+        }
+
+        void addAll(Batch batch) {
+            for (int i = 0; i < batch.mSize; i++) {
+                add(batch.mActions[i], batch.mFromPositions[i], batch.mToPositions[i], batch.mTimes[i]);
+            }
+        }
+
+        void clear() {
+            mSize = 0;
+        }
+
+        private static int[] copyOf(int[] values, int capacity) {
+            int[] copy = new int[capacity];
+            System.arraycopy(values, 0, copy, 0, values.length);
+            return copy;
+        }
+    }
+
+    private final File mFile;
+    private final Store mStore;
+    private final long mFlushIntervalMillis;
+    private final int mFlushSize;
+
+    private final Object mLock = new Object();
+
+    /**
+     * Actions appended since the last group commit, guarded by mLock
+     */
+    private Batch mBuffer = new Batch();
+
+    /**
+     * Actions written to the file but not yet accepted by the store, used by the journal thread only
+     */
+    private final Batch mUnapplied = new Batch();
+
+    private Batch mWriting = new Batch();
+    private boolean mFlushRequested;
+    private boolean mClosed;
+    private long mFlushedGeneration = 0;
+    private long mRequestedGeneration = 0;
+    private IOException mLastError;
+
+    private final Thread mThread = new Thread("SwipeActionJournal") {
+        @Override
+        public void run() {
+            runJournal();
+        }
+    };
+
+    /**
+     * Creates the journal and starts its thread, which first hands the actions left in the file to the store
+     * @param file Journal file, created if it does not exist
+     * @param store Destination of the actions
+     * @param flushIntervalMillis Maximum time an action waits in memory
+     * @param flushSize Number of buffered actions that starts a group commit at once
+     */
+    public SwipeActionJournal(File file, Store store, long flushIntervalMillis, int flushSize) {
+        mFile = file;
+        mStore = store;
+        mFlushIntervalMillis = flushIntervalMillis;
+        mFlushSize = Math.max(flushSize, 1);
+        mThread.setDaemon(true);
+        mThread.start();
+    }
+
+    /**
+     * Adds an action, without blocking on I/O. Called on the main thread.
+     * @param action One of ACTION_*
+     * @param fromPosition First position, inclusive
+     * @param toPosition Last position, exclusive
+     */
+    public void append(int action, int fromPosition, int toPosition) {
+        append(action, fromPosition, toPosition, false);
+    }
+
+    /**
+     * Adds an action with a direction, without blocking on I/O. Called on the main thread.
+     * @param action One of ACTION_*
+     * @param fromPosition First position, inclusive
+     * @param toPosition Last position, exclusive
+     * @param right true for an open toward the right or a close from the right
+     */
+    public void append(int action, int fromPosition, int toPosition, boolean right) {
+        long time = System.currentTimeMillis();
+        synchronized (mLock) {
+            if (mClosed) {
+                return;
+            }
+            mBuffer.add(right ? action | FLAG_RIGHT : action, fromPosition, toPosition, time);
+            if (mBuffer.size() >= mFlushSize) {
+                mFlushRequested = true;
+                mLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Commits the buffered actions now and waits until the store accepted them or failed.
+     * Do not call it on the main thread.
+     * @throws IOException if the journal file could not be written, or if the store failed, the
+     * store exception being the cause; the actions are kept and retried with the next group
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public void flush() throws IOException, InterruptedException {
+        synchronized (mLock) {
+            long generation = ++mRequestedGeneration;
+            mFlushRequested = true;
+            mLock.notifyAll();
+            while (mFlushedGeneration < generation) {
+                mLock.wait();
+            }
+            if (mLastError != null) {
+                throw mLastError;
+            }
+        }
+    }
+
+    /**
+     * Commits the buffered actions and stops the journal thread. Later appends are ignored.
+     */
+    public void close() {
+        synchronized (mLock) {
+            mClosed = true;
+            mLock.notifyAll();
+        }
+    }
+
+    private void runJournal() {
+        IOException readError = null;
+        try {
+            readUnapplied();
+        } catch (IOException e) {
+            readError = e;
+        }
+        IOException startError = applyUnapplied();
+        setLastError(readError != null ? readError : startError);
+
+        while (true) {
+            long generation;
+            boolean closed;
+            synchronized (mLock) {
+                long deadline = System.currentTimeMillis() + mFlushIntervalMillis;
+                while (!mFlushRequested && !mClosed) {
+                    long wait = deadline - System.currentTimeMillis();
+                    if (wait <= 0) {
+                        break;
+                    }
+                    try {
+                        mLock.wait(wait);
+                    } catch (InterruptedException e) {
+                        mClosed = true;
+                    }
+                }
+                mFlushRequested = false;
+                closed = mClosed;
+                generation = mRequestedGeneration;
+                Batch buffer = mBuffer;
+                mBuffer = mWriting;
+                mWriting = buffer;
+            }
+
+            boolean committed = mWriting.size() > 0 || mUnapplied.size() > 0;
+            IOException error = null;
+            if (mWriting.size() > 0) {
+                try {
+                    write(mWriting);
+                } catch (IOException e) {
+                    error = e;
+                }
+                mUnapplied.addAll(mWriting);
+                mWriting.clear();
+            }
+            IOException applyError = applyUnapplied();
+
+            synchronized (mLock) {
+                // An idle commit keeps the last outcome
+                if (committed) {
+                    mLastError = error != null ? error : applyError;
+                }
+                // Once closed no flush is left waiting
+                mFlushedGeneration = closed ? Long.MAX_VALUE : generation;
+                mLock.notifyAll();
+            }
+            if (closed) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Hands the pending actions to the store and empties the file once it accepted them
+     * @return the store failure wrapped in an IOException, or the truncate failure; null on success
+     */
+    private IOException applyUnapplied() {
+        if (mUnapplied.size() == 0) {
+            return null;
+        }
+        try {
+            mStore.apply(mUnapplied);
+        } catch (Exception e) {
+            // IOException(String, Throwable) needs API 9
+            IOException failure = new IOException("Swipe action store failed, " + mUnapplied.size() + " actions pending");
+            failure.initCause(e);
+            return failure;
+        }
+        mUnapplied.clear();
+        try {
+            truncate();
+        } catch (IOException e) {
+            return e;
+        }
+        return null;
+    }
+
+    private void setLastError(IOException error) {
+        synchronized (mLock) {
+            mLastError = error;
+        }
+    }
+
+    /**
+     * Appends a group of actions to the file with one write, then syncs it
+     */
+    private void write(Batch batch) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(batch.size() * RECORD_SIZE);
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (int i = 0; i < batch.size(); i++) {
+            out.writeByte(batch.mActions[i]);
+            out.writeInt(batch.getFromPosition(i));
+            out.writeInt(batch.getToPosition(i));
+            out.writeLong(batch.getTime(i));
+        }
+        FileOutputStream file = new FileOutputStream(mFile, true);
+        try {
+            file.write(bytes.toByteArray());
+            file.getFD().sync();
+        } finally {
+            file.close();
+        }
+    }
+
+    /**
+     * Loads the actions left in the file by a previous journal. A record cut by a crash is
+     * dropped, so new records start at a record boundary.
+     */
+    private void readUnapplied() throws IOException {
+        if (!mFile.exists()) {
+            return;
+        }
+        long records = mFile.length() / RECORD_SIZE;
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(mFile)));
+        try {
+            for (long i = 0; i < records; i++) {
+                mUnapplied.add(in.readUnsignedByte(), in.readInt(), in.readInt(), in.readLong());
+            }
+        } catch (EOFException e) {
+            records = mUnapplied.size();
+        } finally {
+            in.close();
+        }
+        if (mFile.length() != records * RECORD_SIZE) {
+            truncate(records * RECORD_SIZE);
+        }
+    }
+
+    private void truncate() throws IOException {
+        truncate(0);
+    }
+
+    /**
+     * @param length New length of the journal file
+     */
+    private void truncate(long length) throws IOException {
+        if (!mFile.exists()) {
+            return;
+        }
+        RandomAccessFile file = new RandomAccessFile(mFile, "rw");
+        try {
+            file.setLength(length);
+            file.getFD().sync();
+        } finally {
+            file.close();
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview.core;
+
+/**
+ * Checked state of the items of a SwipeListView, one bit per data position.
+ *
+ * The number of checked items is kept up to date on every change, so reading it never
+ * scans the bits. Range operations work on whole 64 bit words.
+ */
+public class SwipeCheckedItems {
+
+    private final static int ADDRESS_BITS = 6;
+    private final static int WORD_MASK = 63;
+
+    private long[] mWords = new long[0];
+    private int mSize = 0;
+    private int mCount = 0;
+
+    /**
+     * @return number of items
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * @return number of checked items
+     */
+    public int getCount() {
+        return mCount;
+    }
+
+    /**
+     * @param position Position of list
+     * @return true if the item is checked
+     */
+    public boolean get(int position) {
+        if (position < 0 || position >= mSize) {
+            return false;
+        }
+        return (mWords[position >>> ADDRESS_BITS] & (1L << position)) != 0;
+    }
+
+    /**
+     * @param position Position of list
+     * @param checked New state
+     * @return true if the state changed
+     */
+    public boolean set(int position, boolean checked) {
+        if (position < 0) {
+            return false;
+        }
+        if (position >= mSize) {
+            if (!checked) {
+                return false;
+            }
+            setSize(position + 1);
+        }
+        int wordIndex = position >>> ADDRESS_BITS;
+        long bit = 1L << position;
+        if (((mWords[wordIndex] & bit) != 0) == checked) {
+            return false;
+        }
+        mWords[wordIndex] ^= bit;
+        mCount += checked ? 1 : -1;
+        return true;
+    }
+
+    /**
+     * Checks or unchecks a range of items
+     * @param from First position, inclusive
+     * @param to Last position, exclusive
+     * @param checked New state
+     */
+    public void setRange(int from, int to, boolean checked) {
+        from = Math.max(from, 0);
+        if (to > mSize) {
+            if (!checked) {
+                to = mSize;
+            } else {
+                setSize(to);
+            }
+        }
+        if (from >= to) {
+            return;
+        }
+        int firstWord = from >>> ADDRESS_BITS;
+        int lastWord = (to - 1) >>> ADDRESS_BITS;
+        for (int i = firstWord; i <= lastWord; i++) {
+            long mask = -1L;
+            if (i == firstWord) {
+                mask &= -1L << from;
+            }
+            if (i == lastWord) {
+                mask &= -1L >>> (-to & WORD_MASK);
+            }
+            int before = Long.bitCount(mWords[i] & mask);
+            if (checked) {
+                mWords[i] |= mask;
+                mCount += Long.bitCount(mask) - before;
+            } else {
+                mWords[i] &= ~mask;
+                mCount -= before;
+            }
+        }
+    }
+
+    /**
+     * Checks every unchecked item and unchecks every checked item
+     */
+    public void invert() {
+        int wordCount = getWordCount(mSize);
+        for (int i = 0; i < wordCount; i++) {
+            mWords[i] = ~mWords[i];
+        }
+        if (wordCount > 0) {
+            mWords[wordCount - 1] &= -1L >>> (-mSize & WORD_MASK);
+        }
+        mCount = mSize - mCount;
+    }
+
+    /**
+     * Changes the number of items. New items are unchecked, items past the new size are dropped.
+     * @param size Number of items
+     */
+    public void setSize(int size) {
+        if (size < mSize) {
+            setRange(size, mSize, false);
+        } else if (getWordCount(size) > mWords.length) {
+            long[] words = new long[Math.max(getWordCount(size), mWords.length * 2)];
+            System.arraycopy(mWords, 0, words, 0, mWords.length);
+            mWords = words;
+        }
+        mSize = size;
+    }
+
+    /**
+     * Inserts an unchecked item, shifting the following items
+     * @param position Position of the new item
+     */
+    public void insert(int position) {
+        if (position >= mSize) {
+            setSize(position + 1);
+            return;
+        }
+        setSize(mSize + 1);
+        int wordIndex = position >>> ADDRESS_BITS;
+        for (int i = getWordCount(mSize) - 1; i > wordIndex; i--) {
+            mWords[i] = (mWords[i] << 1) | (mWords[i - 1] >>> WORD_MASK);
+        }
+        long word = mWords[wordIndex];
+        long lowMask = (1L << position) - 1;
+        mWords[wordIndex] = (word & lowMask) | ((word & ~lowMask) << 1);
+    }
+
+    /**
+     * Removes an item, shifting the following items
+     * @param position Position of the removed item
+     */
+    public void remove(int position) {
+        if (position < 0 || position >= mSize) {
+            return;
+        }
+        set(position, false);
+        int wordIndex = position >>> ADDRESS_BITS;
+        int wordCount = getWordCount(mSize);
+        long word = mWords[wordIndex];
+        long lowMask = (1L << position) - 1;
+        mWords[wordIndex] = (word & lowMask) | ((word >>> 1) & ~lowMask);
+        for (int i = wordIndex; i < wordCount - 1; i++) {
+            mWords[i] |= mWords[i + 1] << WORD_MASK;
+            mWords[i + 1] >>>= 1;
+        }
+        mSize--;
+    }
+
+    /**
+     * Moves every checked item to its new position after the adapter data changed
+     * @param oldPositions For each new position, the previous position of the item or -1 if it is new
+     */
+    public void remap(int[] oldPositions) {
+        long[] words = new long[getWordCount(oldPositions.length)];
+        int count = 0;
+        for (int i = 0; i < oldPositions.length; i++) {
+            if (get(oldPositions[i])) {
+                words[i >>> ADDRESS_BITS] |= 1L << i;
+                count++;
+            }
+        }
+        mWords = words;
+        mSize = oldPositions.length;
+        mCount = count;
+    }
+
+    /**
+     * @param from Position to start from
+     * @return first checked position at or after from, or -1 if there is none
+     */
+    public int nextChecked(int from) {
+        if (from < 0) {
+            from = 0;
+        }
+        if (from >= mSize) {
+            return -1;
+        }
+        int wordIndex = from >>> ADDRESS_BITS;
+        long word = mWords[wordIndex] & (-1L << from);
+        int wordCount = getWordCount(mSize);
+        while (word == 0) {
+            if (++wordIndex == wordCount) {
+                return -1;
+            }
+            word = mWords[wordIndex];
+        }
+        return (wordIndex << ADDRESS_BITS) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * @param from Position to start from
+     * @return first unchecked position at or after from; positions past the last item are unchecked
+     */
+    public int nextUnchecked(int from) {
+        if (from < 0) {
+            from = 0;
+        }
+        if (from >= mSize) {
+            return from;
+        }
+        int wordIndex = from >>> ADDRESS_BITS;
+        long word = ~mWords[wordIndex] & (-1L << from);
+        int wordCount = getWordCount(mSize);
+        while (word == 0) {
+            if (++wordIndex == wordCount) {
+                return mSize;
+            }
+            word = ~mWords[wordIndex];
+        }
+        return Math.min((wordIndex << ADDRESS_BITS) + Long.numberOfTrailingZeros(word), mSize);
+    }
+
+    /**
+     * @return checked positions in ascending order
+     */
+    public int[] toArray() {
+        int[] positions = new int[mCount];
+        int index = 0;
+        for (int position = nextChecked(0); position >= 0; position = nextChecked(position + 1)) {
+            positions[index++] = position;
+        }
+        return positions;
+    }
+
+    private static int getWordCount(int size) {
+        return (size + WORD_MASK) >>> ADDRESS_BITS;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview.core;
+
+/**
+ * Decides when a touch has become a horizontal swipe.
+ *
+ * A touch that moved past the slop faster horizontally than vertically is a swipe, as before.
+ * A touch whose direction is already clearly horizontal commits earlier, once it has moved a
+ * fraction of the slop within a maximum angle from the horizontal axis, which removes most of
+ * the distance the finger travels before the row starts following it.
+ */
+public class SwipeIntentDetector {
+
+    /**
+     * Default early commit distance, as a fraction of the slop
+     */
+    public final static float DEFAULT_EARLY_COMMIT_RATIO = 0.5f;
+
+    /**
+     * Default maximum angle from the horizontal axis for an early commit, in degrees
+     */
+    public final static float DEFAULT_EARLY_COMMIT_ANGLE = 25f;
+
+    private final int mSlop;
+    private boolean mEarlyCommit;
+    private float mEarlyCommitDistance;
+    private float mEarlyCommitSlope;
+
+    /**
+     * @param slop Distance in pixels after which a touch is a swipe or a scroll
+     */
+    public SwipeIntentDetector(int slop) {
+        mSlop = slop;
+        setEarlyCommit(DEFAULT_EARLY_COMMIT_RATIO, DEFAULT_EARLY_COMMIT_ANGLE);
+    }
+
+    /**
+     * Configures the early commit
+     * @param distanceRatio Fraction of the slop a touch has to move, 1 or more disables the early commit
+     * @param maxAngle Maximum angle from the horizontal axis, in degrees
+     */
+    public void setEarlyCommit(float distanceRatio, float maxAngle) {
+        mEarlyCommit = distanceRatio < 1f;
+        mEarlyCommitDistance = mSlop * Math.max(0f, distanceRatio);
+        mEarlyCommitSlope = (float) Math.tan(Math.toRadians(Math.max(0f, Math.min(45f, maxAngle))));
+    }
+
+    /**
+     * @param deltaX Horizontal distance from the down event, 0 if the swipe direction is not allowed
+     * @param deltaY Vertical distance from the down event
+     * @param velocityX Absolute horizontal velocity
+     * @param velocityY Absolute vertical velocity
+     * @return true if the touch should start a swipe
+     */
+    public boolean isSwipe(float deltaX, float deltaY, float velocityX, float velocityY) {
+        float absX = Math.abs(deltaX);
+        if (absX == 0 || velocityY >= velocityX) {
+            return false;
+        }
+        if (absX > mSlop) {
+            return true;
+        }
+        return mEarlyCommit && absX >= mEarlyCommitDistance && Math.abs(deltaY) <= absX * mEarlyCommitSlope;
+    }
+}
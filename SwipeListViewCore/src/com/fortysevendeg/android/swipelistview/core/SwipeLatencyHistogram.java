@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview.core;
+
+/**
+ * Latency histogram with fixed millisecond buckets. Recording a value does not allocate.
+ */
+public class SwipeLatencyHistogram {
+
+    /**
+     * Inclusive upper bound of each bucket in milliseconds; one more bucket holds larger values
+     */
+    private final static long[] BUCKET_LIMITS = {
+            1, 2, 4, 8, 12, 16, 20, 25, 33, 50, 66, 83, 100, 150, 200, 300, 400, 500, 750, 1000, 2000
+    };
+
+    private final long[] mBuckets = new long[BUCKET_LIMITS.length + 1];
+    private long mCount = 0;
+    private long mSum = 0;
+    private long mMax = 0;
+
+    /**
+     * Adds a value
+     * @param millis Latency in milliseconds
+     */
+    void record(long millis) {
+        if (millis < 0) {
+            return;
+        }
+        int low = 0;
+        int high = BUCKET_LIMITS.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (BUCKET_LIMITS[middle] < millis) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        mBuckets[low]++;
+        mCount++;
+        mSum += millis;
+        mMax = Math.max(mMax, millis);
+    }
+
+    /**
+     * @return number of recorded values
+     */
+    public long getCount() {
+        return mCount;
+    }
+
+    /**
+     * @return mean of the recorded values in milliseconds, 0 if there is none
+     */
+    public float getMean() {
+        return mCount > 0 ? (float) mSum / mCount : 0;
+    }
+
+    /**
+     * @return largest recorded value in milliseconds
+     */
+    public long getMax() {
+        return mMax;
+    }
+
+    /**
+     * Returns a percentile, as the upper bound of the bucket it falls in
+     * @param percentile Percentile between 0 and 100
+     * @return latency in milliseconds, 0 if there is no value
+     */
+    public long getPercentile(float percentile) {
+        if (mCount == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(mCount * Math.max(0f, Math.min(100f, percentile)) / 100f);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_LIMITS.length; i++) {
+            seen += mBuckets[i];
+            if (seen >= Math.max(rank, 1)) {
+                return Math.min(BUCKET_LIMITS[i], mMax);
+            }
+        }
+        return mMax;
+    }
+
+    /**
+     * @return number of buckets, the last one holds every value above the last limit
+     */
+    public int getBucketCount() {
+        return mBuckets.length;
+    }
+
+    /**
+     * @param bucket Bucket index
+     * @return inclusive upper bound of the bucket in milliseconds, Long.MAX_VALUE for the last one
+     */
+    public long getBucketLimit(int bucket) {
+        return bucket < BUCKET_LIMITS.length ? BUCKET_LIMITS[bucket] : Long.MAX_VALUE;
+    }
+
+    /**
+     * @param bucket Bucket index
+     * @return number of values recorded in the bucket
+     */
+    public long getBucketValues(int bucket) {
+        return mBuckets[bucket];
+    }
+
+    /**
+     * Drops every recorded value
+     */
+    void reset() {
+        for (int i = 0; i < mBuckets.length; i++) {
+            mBuckets[i] = 0;
+        }
+        mCount = 0;
+        mSum = 0;
+        mMax = 0;
+    }
+
+    /**
+     * Replaces the values of this histogram with the values of another one
+     * @param histogram Source histogram
+     */
+    void copyFrom(SwipeLatencyHistogram histogram) {
+        System.arraycopy(histogram.mBuckets, 0, mBuckets, 0, mBuckets.length);
+        mCount = histogram.mCount;
+        mSum = histogram.mSum;
+        mMax = histogram.mMax;
+    }
+}
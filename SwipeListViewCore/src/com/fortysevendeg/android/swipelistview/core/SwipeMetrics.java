@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview.core;
+
+/**
+ * Latency histograms and work counters of the swipe engine, enabled with
+ * SwipeListView.setMetricsEnabled. Values are recorded on the main thread without allocating;
+ * read them from a {@link #snapshot()} taken on the main thread.
+ *
+ * Counters let a test hold an interaction to a budget: reset, drive the interaction, then check
+ * the layout passes and the allocations per move event. Allocations are only counted while
+ * android.os.Debug allocation counting is started, otherwise they read 0.
+ */
+public class SwipeMetrics {
+
+    /**
+     * Down event to the moment the touch becomes a swipe
+     */
+    public final static int METRIC_SWIPE_START = 0;
+
+    /**
+     * Swipe start to the first frame drawn with the row translated
+     */
+    public final static int METRIC_FIRST_FRAME = 1;
+
+    /**
+     * Finger lift to the end of the reveal animation
+     */
+    public final static int METRIC_REVEAL = 2;
+
+    /**
+     * Finger lift, or predictive commit, to the end of the dismiss animation
+     */
+    public final static int METRIC_DISMISS = 3;
+
+    /**
+     * Start of the row collapse to the onDismiss callback
+     */
+    public final static int METRIC_DISMISS_CALLBACK = 4;
+
+    private final static int METRIC_COUNT = 5;
+
+    /**
+     * Calls to requestLayout on the list
+     */
+    public final static int COUNTER_LAYOUT_REQUESTS = 0;
+
+    /**
+     * Layouts of the list children
+     */
+    public final static int COUNTER_LAYOUT_PASSES = 1;
+
+    /**
+     * Move events handled by the swipe engine
+     */
+    public final static int COUNTER_MOVE_EVENTS = 2;
+
+    /**
+     * Objects allocated while handling move events
+     */
+    public final static int COUNTER_MOVE_ALLOCATIONS = 3;
+
+    private final static int COUNTER_COUNT = 4;
+
+    private final long[] mCounters = new long[COUNTER_COUNT];
+
+    private int mMaxMoveAllocations = 0;
+
+    private final SwipeLatencyHistogram[] mHistograms = new SwipeLatencyHistogram[METRIC_COUNT];
+
+    private long mSwipeStartTime = -1;
+
+    public SwipeMetrics() {
+        for (int i = 0; i < METRIC_COUNT; i++) {
+            mHistograms[i] = new SwipeLatencyHistogram();
+        }
+    }
+
+    /**
+     * @param metric One of the METRIC constants
+     * @return histogram of the metric
+     */
+    public SwipeLatencyHistogram getHistogram(int metric) {
+        return mHistograms[metric];
+    }
+
+    /**
+     * @param counter One of the COUNTER constants
+     * @return value of the counter
+     */
+    public long getCounter(int counter) {
+        return mCounters[counter];
+    }
+
+    /**
+     * @return most objects allocated while handling a single move event
+     */
+    public int getMaxMoveAllocations() {
+        return mMaxMoveAllocations;
+    }
+
+    /**
+     * @return copy of every histogram and counter
+     */
+    public SwipeMetrics snapshot() {
+        SwipeMetrics snapshot = new SwipeMetrics();
+        for (int i = 0; i < METRIC_COUNT; i++) {
+            snapshot.mHistograms[i].copyFrom(mHistograms[i]);
+        }
+        System.arraycopy(mCounters, 0, snapshot.mCounters, 0, COUNTER_COUNT);
+        snapshot.mMaxMoveAllocations = mMaxMoveAllocations;
+        return snapshot;
+    }
+
+    /**
+     * Drops every recorded value
+     */
+    public void reset() {
+        for (SwipeLatencyHistogram histogram : mHistograms) {
+            histogram.reset();
+        }
+        for (int i = 0; i < COUNTER_COUNT; i++) {
+            mCounters[i] = 0;
+        }
+        mMaxMoveAllocations = 0;
+        mSwipeStartTime = -1;
+    }
+
+    /**
+     * @param metric One of the METRIC constants
+     * @param millis Latency in milliseconds
+     */
+    public void record(int metric, long millis) {
+        mHistograms[metric].record(millis);
+    }
+
+    /**
+     * @param counter One of the COUNTER constants
+     */
+    public void increment(int counter) {
+        mCounters[counter]++;
+    }
+
+    /**
+     * @param allocations Objects allocated while handling a move event
+     */
+    public void onMoveEvent(int allocations) {
+        mCounters[COUNTER_MOVE_EVENTS]++;
+        mCounters[COUNTER_MOVE_ALLOCATIONS] += allocations;
+        mMaxMoveAllocations = Math.max(mMaxMoveAllocations, allocations);
+    }
+
+    /**
+     * Marks the start of a swipe, the next drawn frame is its first frame
+     * @param time Uptime in milliseconds
+     */
+    public void onSwipeStarted(long time) {
+        mSwipeStartTime = time;
+    }
+
+    /**
+     * @param time Uptime in milliseconds
+     */
+    public void onFrameDrawn(long time) {
+        if (mSwipeStartTime >= 0) {
+            record(METRIC_FIRST_FRAME, time - mSwipeStartTime);
+            mSwipeStartTime = -1;
+        }
+    }
+}
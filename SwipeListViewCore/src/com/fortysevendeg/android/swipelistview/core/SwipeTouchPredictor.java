@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview.core;
+
+/**
+ * Predicts where a finger will be when the next frame is shown, so a dragged row does not
+ * trail behind it.
+ *
+ * The velocity is a least squares fit of the recent samples and the position is extrapolated
+ * linearly. The predicted offset never exceeds the distance the finger moved over the sample
+ * window nor the configured maximum, and it is zero while the finger slows down to change
+ * direction. Plain Java, so it can be run against recorded traces; the error of each prediction
+ * is measured against the sample that actually arrives.
+ */
+public class SwipeTouchPredictor {
+
+    /**
+     * Default time between an event and the frame that shows it, one 60 fps frame
+     */
+    public final static long DEFAULT_HORIZON_MILLIS = 16;
+
+    private final static int MAX_SAMPLES = 8;
+    private final static int MIN_SAMPLES = 3;
+    private final static long SAMPLE_WINDOW_MILLIS = 60;
+
+    private final long[] mTimes = new long[MAX_SAMPLES];
+    private final float[] mPositions = new float[MAX_SAMPLES];
+    private int mCount = 0;
+    private int mNext = 0;
+
+    private float mMaxOffset = Float.MAX_VALUE;
+
+    private double mErrorSum = 0;
+    private double mBaselineErrorSum = 0;
+    private int mErrorCount = 0;
+
+    /**
+     * @param maxOffset Maximum predicted offset in pixels
+     */
+    public void setMaxOffset(float maxOffset) {
+        mMaxOffset = maxOffset;
+    }
+
+    /**
+     * Forgets the samples of the previous gesture. Errors are kept.
+     */
+    public void reset() {
+        mCount = 0;
+        mNext = 0;
+    }
+
+    /**
+     * Adds a touch sample, measuring first how far the prediction for its time was
+     * @param time Event time in milliseconds
+     * @param position Touch position in pixels
+     */
+    public void addSample(long time, float position) {
+        if (mCount > 0 && time <= getTime(0)) {
+            return;
+        }
+        if (mCount >= MIN_SAMPLES) {
+            float last = getPosition(0);
+            mErrorSum += Math.abs(position - (last + predictOffset(time)));
+            mBaselineErrorSum += Math.abs(position - last);
+            mErrorCount++;
+        }
+        mTimes[mNext] = time;
+        mPositions[mNext] = position;
+        mNext = (mNext + 1) % MAX_SAMPLES;
+        mCount = Math.min(mCount + 1, MAX_SAMPLES);
+    }
+
+    /**
+     * @param time Time the prediction is for, in milliseconds
+     * @return distance the finger is expected to move from the last sample until that time
+     */
+    public float predictOffset(long time) {
+        if (mCount < MIN_SAMPLES) {
+            return 0;
+        }
+        long lastTime = getTime(0);
+        long horizon = time - lastTime;
+        if (horizon <= 0) {
+            return 0;
+        }
+
+        // Least squares slope over the samples of the window
+        int n = 0;
+        double sumT = 0, sumX = 0, sumTT = 0, sumTX = 0;
+        float oldest = getPosition(0);
+        for (int i = 0; i < mCount && lastTime - getTime(i) <= SAMPLE_WINDOW_MILLIS; i++) {
+            double t = getTime(i) - lastTime;
+            double x = getPosition(i);
+            sumT += t;
+            sumX += x;
+            sumTT += t * t;
+            sumTX += t * x;
+            oldest = getPosition(i);
+            n++;
+        }
+        if (n < MIN_SAMPLES) {
+            return 0;
+        }
+        double denominator = n * sumTT - sumT * sumT;
+        if (denominator == 0) {
+            return 0;
+        }
+        double velocity = (n * sumTX - sumT * sumX) / denominator;
+
+        // No prediction while the last step goes against the fitted direction
+        float lastStep = getPosition(0) - getPosition(1);
+        if (velocity == 0 || lastStep == 0 || (lastStep > 0) != (velocity > 0)) {
+            return 0;
+        }
+
+        float offset = (float) (velocity * horizon);
+        float limit = Math.min(mMaxOffset, Math.abs(getPosition(0) - oldest));
+        return Math.max(-limit, Math.min(limit, offset));
+    }
+
+    /**
+     * @return mean absolute error of the predictions in pixels, -1 if nothing was predicted yet
+     */
+    public float getMeanError() {
+        return mErrorCount > 0 ? (float) (mErrorSum / mErrorCount) : -1;
+    }
+
+    /**
+     * @return mean absolute error in pixels of using the last sample without prediction, -1 if nothing was predicted yet
+     */
+    public float getMeanBaselineError() {
+        return mErrorCount > 0 ? (float) (mBaselineErrorSum / mErrorCount) : -1;
+    }
+
+    /**
+     * @param age 0 for the last sample, 1 for the one before...
+     */
+    private long getTime(int age) {
+        return mTimes[(mNext - 1 - age + MAX_SAMPLES) % MAX_SAMPLES];
+    }
+
+    private float getPosition(int age) {
+        return mPositions[(mNext - 1 - age + MAX_SAMPLES) % MAX_SAMPLES];
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview.core;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Sequence of touch events recorded by SwipeListView, in the order they were received.
+ *
+ * Each event keeps the masked action, the id of the pointer it refers to, the raw screen
+ * coordinates and the event time. Raw coordinates make a trace independent of where the list
+ * was on screen, so it can be replayed on another list. The binary form is a small header
+ * followed by 14 bytes per event, with times stored as deltas from the previous event.
+ */
+public class SwipeTouchTrace {
+
+    /**
+     * Largest number of events a trace can hold, about 900 KB in its binary form and
+     * several minutes of touch input
+     */
+    public final static int MAX_SIZE = 1 << 16;
+
+    private final static int MAGIC = 0x53575452;
+    private final static int VERSION = 1;
+
+    private final int[] mActions;
+    private final int[] mPointerIds;
+    private final float[] mRawX;
+    private final float[] mRawY;
+    private final long[] mEventTimes;
+
+    /**
+     * @param size Number of events, at most MAX_SIZE
+     */
+    public SwipeTouchTrace(int size) {
+        if (size < 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Invalid swipe touch trace size " + size);
+        }
+        mActions = new int[size];
+        mPointerIds = new int[size];
+        mRawX = new float[size];
+        mRawY = new float[size];
+        mEventTimes = new long[size];
+    }
+
+    /**
+     * Sets an event, used when a trace is built
+     * @param index Index of event
+     * @param action Masked action
+     * @param pointerId Id of the pointer the action refers to
+     * @param rawX X on screen
+     * @param rawY Y on screen
+     * @param eventTime Event time in milliseconds
+     */
+    public void set(int index, int action, int pointerId, float rawX, float rawY, long eventTime) {
+        mActions[index] = action;
+        mPointerIds[index] = pointerId;
+        mRawX[index] = rawX;
+        mRawY[index] = rawY;
+        mEventTimes[index] = eventTime;
+    }
+
+    /**
+     * @return number of events
+     */
+    public int size() {
+        return mActions.length;
+    }
+
+    /**
+     * @param index Index of event
+     * @return masked action, as given by MotionEventCompat.getActionMasked
+     */
+    public int getAction(int index) {
+        return mActions[index];
+    }
+
+    /**
+     * @param index Index of event
+     * @return id of the pointer the action refers to
+     */
+    public int getPointerId(int index) {
+        return mPointerIds[index];
+    }
+
+    /**
+     * @param index Index of event
+     * @return X on screen
+     */
+    public float getRawX(int index) {
+        return mRawX[index];
+    }
+
+    /**
+     * @param index Index of event
+     * @return Y on screen
+     */
+    public float getRawY(int index) {
+        return mRawY[index];
+    }
+
+    /**
+     * @param index Index of event
+     * @return event time in the uptimeMillis base of the device that recorded it
+     */
+    public long getEventTime(int index) {
+        return mEventTimes[index];
+    }
+
+    /**
+     * Writes the trace in its binary form. The stream is not closed.
+     * @param outputStream Destination
+     * @throws IOException if the stream cannot be written
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(size());
+        long previousTime = size() > 0 ? mEventTimes[0] : 0;
+        out.writeLong(previousTime);
+        for (int i = 0; i < size(); i++) {
+            out.writeByte(mActions[i]);
+            out.writeByte(mPointerIds[i]);
+            out.writeFloat(mRawX[i]);
+            out.writeFloat(mRawY[i]);
+            out.writeInt((int) (mEventTimes[i] - previousTime));
+            previousTime = mEventTimes[i];
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a trace written by writeTo. The stream is not closed.
+     * @param inputStream Source
+     * @return the trace
+     * @throws IOException if the stream cannot be read or does not hold a trace. A size
+     * above MAX_SIZE is rejected before anything is allocated, and a stream shorter than its
+     * size fails with an EOFException.
+     */
+    public static SwipeTouchTrace readFrom(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a swipe touch trace");
+        }
+        int version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported swipe touch trace version " + version);
+        }
+        int size = in.readInt();
+        if (size < 0 || size > MAX_SIZE) {
+            throw new IOException("Invalid swipe touch trace size " + size);
+        }
+        SwipeTouchTrace trace = new SwipeTouchTrace(size);
+        long time = in.readLong();
+        for (int i = 0; i < size; i++) {
+            trace.mActions[i] = in.readUnsignedByte();
+            trace.mPointerIds[i] = in.readUnsignedByte();
+            trace.mRawX[i] = in.readFloat();
+            trace.mRawY[i] = in.readFloat();
+            time += in.readInt();
+            trace.mEventTimes[i] = time;
+        }
+        return trace;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ListSnapshotTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("snapshot", ".bin");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+        new File(file.getPath() + ".tmp").delete();
+    }
+
+    @Test
+    public void roundTripKeepsRowsAndStates() throws IOException {
+        ListSnapshot snapshot = sample();
+        snapshot.write(file);
+
+        ListSnapshot read = ListSnapshot.read(file);
+        assertNotNull(read);
+        assertEquals(3, read.getCount());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(snapshot.getKey(i), read.getKey(i));
+            assertEquals(snapshot.getLabel(i), read.getLabel(i));
+            assertEquals(snapshot.getState(i), read.getState(i));
+        }
+    }
+
+    @Test
+    public void emptySnapshotIsValid() throws IOException {
+        ListSnapshot read = ListSnapshot.decode(ByteBuffer.wrap(
+                new ListSnapshot(new String[0], new String[0], new int[0]).encode()));
+        assertNotNull(read);
+        assertEquals(0, read.getCount());
+    }
+
+    @Test
+    public void missingFileReadsAsNull() {
+        file.delete();
+        assertNull(ListSnapshot.read(file));
+    }
+
+    @Test
+    public void badMagicIsRejected() throws IOException {
+        byte[] data = sample().encode();
+        data[0] ^= 0x01;
+        resign(data);
+        assertNull(ListSnapshot.decode(ByteBuffer.wrap(data)));
+    }
+
+    @Test
+    public void otherVersionIsRejected() throws IOException {
+        byte[] data = sample().encode();
+        ByteBuffer.wrap(data).putInt(4, ListSnapshot.VERSION + 1);
+        resign(data);
+        assertNull(ListSnapshot.decode(ByteBuffer.wrap(data)));
+    }
+
+    @Test
+    public void flippedByteFailsChecksum() throws IOException {
+        byte[] data = sample().encode();
+        data[14] ^= 0x40;
+        assertNull(ListSnapshot.decode(ByteBuffer.wrap(data)));
+    }
+
+    @Test
+    public void truncatedDataIsRejected() throws IOException {
+        byte[] data = sample().encode();
+        for (int length = 0; length < data.length; length++) {
+            byte[] truncated = new byte[length];
+            System.arraycopy(data, 0, truncated, 0, length);
+            assertNull("length " + length, ListSnapshot.decode(ByteBuffer.wrap(truncated)));
+        }
+    }
+
+    @Test
+    public void impossibleCountIsRejectedBeforeAllocating() throws IOException {
+        byte[] data = sample().encode();
+        ByteBuffer.wrap(data).putInt(8, Integer.MAX_VALUE);
+        resign(data);
+        assertNull(ListSnapshot.decode(ByteBuffer.wrap(data)));
+    }
+
+    @Test
+    public void negativeCountIsRejected() throws IOException {
+        byte[] data = sample().encode();
+        ByteBuffer.wrap(data).putInt(8, -1);
+        resign(data);
+        assertNull(ListSnapshot.decode(ByteBuffer.wrap(data)));
+    }
+
+    @Test
+    public void countSmallerThanRowsIsRejected() throws IOException {
+        byte[] data = sample().encode();
+        ByteBuffer.wrap(data).putInt(8, 2);
+        resign(data);
+        assertNull(ListSnapshot.decode(ByteBuffer.wrap(data)));
+    }
+
+    @Test
+    public void unknownStateBitsAreIgnored() throws IOException {
+        byte[] data = sample().encode();
+        data[12] = (byte) 0xf8;
+        resign(data);
+        ListSnapshot read = ListSnapshot.decode(ByteBuffer.wrap(data));
+        assertNotNull(read);
+        assertEquals(0, read.getState(0));
+    }
+
+    @Test
+    public void corruptFileIsDeleted() throws IOException {
+        byte[] data = sample().encode();
+        data[data.length - 1] ^= 0x01;
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(data);
+        out.close();
+
+        assertNull(ListSnapshot.read(file));
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void mapPositionsFollowsKeys() {
+        int[] positions = ListSnapshot.mapPositions(new String[]{"a", "b", "c"}, new String[]{"c", "d", "a"});
+        assertArrayEquals(new int[]{2, -1, 0}, positions);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mismatchedLengthsAreRejected() {
+        new ListSnapshot(new String[]{"a"}, new String[0], new int[]{0});
+    }
+
+    private static ListSnapshot sample() {
+        return new ListSnapshot(
+                new String[]{"com.example.mail", "com.example.maps", "com.example.\u00e9t\u00e9"},
+                new String[]{"Mail", "Maps", "\u00c9t\u00e9"},
+                new int[]{0, ListSnapshot.STATE_OPENED | ListSnapshot.STATE_OPENED_RIGHT, ListSnapshot.STATE_CHECKED});
+    }
+
+    /**
+     * Recomputes the trailing CRC32 so a test reaches the check it is aimed at
+     */
+    private static void resign(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - 4);
+        ByteBuffer.wrap(data).putInt(data.length - 4, (int) crc.getValue());
+    }
+}
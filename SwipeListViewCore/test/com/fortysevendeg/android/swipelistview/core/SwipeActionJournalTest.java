@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SwipeActionJournalTest {
+
+    private final static long NEVER = 60 * 1000;
+    private final static long TIMEOUT_MILLIS = 5000;
+
+    private File file;
+    private RecordingStore store;
+    private List<SwipeActionJournal> journals;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("journal", ".bin");
+        file.delete();
+        store = new RecordingStore();
+        journals = new ArrayList<SwipeActionJournal>();
+    }
+
+    @After
+    public void tearDown() {
+        for (SwipeActionJournal journal : journals) {
+            journal.close();
+        }
+        file.delete();
+    }
+
+    @Test
+    public void flushHandsActionsInOrderWithTheirDirection() throws Exception {
+        SwipeActionJournal journal = start(store, NEVER, 100);
+        journal.append(SwipeActionJournal.ACTION_OPEN, 2, 3, true);
+        journal.append(SwipeActionJournal.ACTION_CLOSE, 2, 3, false);
+        journal.append(SwipeActionJournal.ACTION_DISMISS, 7, 8);
+        journal.flush();
+
+        assertEquals(Arrays.asList("open 2-3 right", "close 2-3 left", "dismiss 7-8 left"), store.actions());
+        assertEquals(1, store.batches);
+        assertEquals(0, file.length());
+    }
+
+    @Test
+    public void groupCommitStartsAtFlushSize() throws Exception {
+        SwipeActionJournal journal = start(store, NEVER, 3);
+        journal.append(SwipeActionJournal.ACTION_CHECK, 0, 1);
+        journal.append(SwipeActionJournal.ACTION_CHECK, 1, 2);
+        Thread.sleep(200);
+        assertEquals(0, store.actions().size());
+
+        journal.append(SwipeActionJournal.ACTION_CHECK, 2, 3);
+        waitForActions(3);
+        assertEquals(1, store.batches);
+    }
+
+    @Test
+    public void groupCommitStartsAfterFlushInterval() throws Exception {
+        long start = System.currentTimeMillis();
+        SwipeActionJournal journal = start(store, 100, 100);
+        journal.append(SwipeActionJournal.ACTION_UNCHECK, 4, 6);
+        journal.append(SwipeActionJournal.ACTION_OPEN, 5, 6, true);
+        waitForActions(2);
+        assertTrue(System.currentTimeMillis() - start < TIMEOUT_MILLIS);
+        assertEquals(Arrays.asList("uncheck 4-6 left", "open 5-6 right"), store.actions());
+    }
+
+    @Test
+    public void failedActionsStayInTheFileAndAreRetried() throws Exception {
+        store.failures = 1;
+        SwipeActionJournal journal = start(store, NEVER, 100);
+        journal.append(SwipeActionJournal.ACTION_DISMISS, 3, 4);
+        assertStoreFailed(journal);
+        assertEquals(0, store.actions().size());
+        assertEquals(17, file.length());
+
+        journal.append(SwipeActionJournal.ACTION_DISMISS, 9, 10);
+        journal.flush();
+        assertEquals(Arrays.asList("dismiss 3-4 left", "dismiss 9-10 left"), store.actions());
+        assertEquals(0, file.length());
+    }
+
+    @Test
+    public void actionsLeftInTheFileAreAppliedFirstOnRestart() throws Exception {
+        RecordingStore failing = new RecordingStore();
+        failing.failures = Integer.MAX_VALUE;
+        SwipeActionJournal first = start(failing, NEVER, 100);
+        first.append(SwipeActionJournal.ACTION_CLOSE, 1, 2, true);
+        assertStoreFailed(first);
+        first.close();
+
+        SwipeActionJournal second = start(store, NEVER, 100);
+        second.append(SwipeActionJournal.ACTION_OPEN, 4, 5);
+        second.flush();
+        assertEquals(Arrays.asList("close 1-2 right", "open 4-5 left"), store.actions());
+    }
+
+    @Test
+    public void tornRecordIsDropped() throws Exception {
+        DataOutputStream out = new DataOutputStream(new FileOutputStream(file));
+        out.writeByte(SwipeActionJournal.ACTION_CHECK);
+        out.writeInt(0);
+        out.writeInt(2);
+        out.writeLong(1000);
+        // Second record cut by a crash
+        out.writeByte(SwipeActionJournal.ACTION_DISMISS);
+        out.writeInt(5);
+        out.close();
+        assertEquals(17 + 5, file.length());
+
+        // Fails on start and on the first flush, so the file keeps the complete record
+        store.failures = 2;
+        SwipeActionJournal journal = start(store, NEVER, 100);
+        assertStoreFailed(journal);
+        assertEquals(17, file.length());
+
+        journal.append(SwipeActionJournal.ACTION_OPEN, 3, 4, true);
+        journal.flush();
+        assertEquals(Arrays.asList("check 0-2 left", "open 3-4 right"), store.actions());
+        assertEquals(0, file.length());
+    }
+
+    @Test
+    public void storeRecoveryClearsTheFailure() throws Exception {
+        store.failures = 1;
+        SwipeActionJournal journal = start(store, NEVER, 100);
+        journal.append(SwipeActionJournal.ACTION_CHECK, 1, 2);
+        assertStoreFailed(journal);
+
+        journal.flush();
+        assertEquals(Arrays.asList("check 1-2 left"), store.actions());
+        // Nothing left to commit, the success is kept
+        journal.flush();
+    }
+
+    @Test
+    public void appendsAfterCloseAreIgnored() throws Exception {
+        SwipeActionJournal journal = start(store, NEVER, 100);
+        journal.append(SwipeActionJournal.ACTION_CHECK, 0, 1);
+        journal.close();
+        journal.append(SwipeActionJournal.ACTION_CHECK, 1, 2);
+        waitForActions(1);
+        Thread.sleep(100);
+        assertEquals(Arrays.asList("check 0-1 left"), store.actions());
+    }
+
+    private SwipeActionJournal start(SwipeActionJournal.Store store, long flushIntervalMillis, int flushSize) {
+        SwipeActionJournal journal = new SwipeActionJournal(file, store, flushIntervalMillis, flushSize);
+        journals.add(journal);
+        return journal;
+    }
+
+    private static void assertStoreFailed(SwipeActionJournal journal) throws InterruptedException {
+        try {
+            journal.flush();
+            fail("flush() should report the store failure");
+        } catch (IOException e) {
+            assertEquals("Store unavailable", e.getCause().getMessage());
+        }
+    }
+
+    private void waitForActions(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (store.actions().size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, store.actions().size());
+    }
+
+    /**
+     * Keeps the applied actions as "open 2-3 right", failing the first calls if asked to
+     */
+    private static class RecordingStore implements SwipeActionJournal.Store {
+
+        private final static String[] NAMES = {"dismiss", "check", "uncheck", "open", "close"};
+
+        private final List<String> mActions = new ArrayList<String>();
+        volatile int failures;
+        volatile int batches;
+
+        @Override
+        public void apply(SwipeActionJournal.Batch batch) throws Exception {
+            if (failures > 0) {
+                failures--;
+                throw new Exception("Store unavailable");
+            }
+            synchronized (mActions) {
+                for (int i = 0; i < batch.size(); i++) {
+                    mActions.add(NAMES[batch.getAction(i)] + " " + batch.getFromPosition(i) + "-"
+                            + batch.getToPosition(i) + (batch.isRight(i) ? " right" : " left"));
+                }
+            }
+            batches++;
+        }
+
+        List<String> actions() {
+            synchronized (mActions) {
+                return new ArrayList<String>(mActions);
+            }
+        }
+    }
+}
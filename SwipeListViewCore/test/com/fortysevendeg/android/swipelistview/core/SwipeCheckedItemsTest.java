@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SwipeCheckedItemsTest {
+
+    @Test
+    public void setKeepsTheCount() {
+        SwipeCheckedItems checked = new SwipeCheckedItems();
+        assertTrue(checked.set(70, true));
+        assertFalse(checked.set(70, true));
+        assertEquals(71, checked.size());
+        assertEquals(1, checked.getCount());
+        assertFalse(checked.set(200, false));
+        assertEquals(71, checked.size());
+        assertFalse(checked.set(-1, true));
+        assertTrue(checked.set(70, false));
+        assertEquals(0, checked.getCount());
+    }
+
+    @Test
+    public void insertCarriesBitsAcrossWords() {
+        SwipeCheckedItems checked = sized(128);
+        checked.set(62, true);
+        checked.set(63, true);
+        checked.set(127, true);
+        checked.insert(10);
+        assertArrayEquals(new int[]{63, 64, 128}, checked.toArray());
+        assertEquals(129, checked.size());
+        assertEquals(3, checked.getCount());
+    }
+
+    @Test
+    public void insertAtAWordBoundary() {
+        SwipeCheckedItems checked = sized(64);
+        checked.set(63, true);
+        checked.insert(63);
+        assertArrayEquals(new int[]{64}, checked.toArray());
+        checked.insert(0);
+        assertArrayEquals(new int[]{65}, checked.toArray());
+    }
+
+    @Test
+    public void removeCarriesBitsAcrossWords() {
+        SwipeCheckedItems checked = sized(130);
+        checked.set(64, true);
+        checked.set(128, true);
+        checked.set(129, true);
+        checked.remove(5);
+        assertArrayEquals(new int[]{63, 127, 128}, checked.toArray());
+        checked.remove(63);
+        assertArrayEquals(new int[]{126, 127}, checked.toArray());
+        assertEquals(128, checked.size());
+        assertEquals(2, checked.getCount());
+        checked.remove(128);
+        assertEquals(128, checked.size());
+    }
+
+    @Test
+    public void rangeEndingOnAWordBoundary() {
+        SwipeCheckedItems checked = sized(128);
+        checked.setRange(0, 64, true);
+        assertEquals(64, checked.getCount());
+        assertFalse(checked.get(64));
+        checked.setRange(64, 128, true);
+        assertEquals(128, checked.getCount());
+        checked.setRange(1, 127, false);
+        assertArrayEquals(new int[]{0, 127}, checked.toArray());
+    }
+
+    @Test
+    public void rangePastTheEndGrowsOnlyWhenChecking() {
+        SwipeCheckedItems checked = sized(10);
+        checked.setRange(5, 100, false);
+        assertEquals(10, checked.size());
+        checked.setRange(5, 100, true);
+        assertEquals(100, checked.size());
+        assertEquals(95, checked.getCount());
+    }
+
+    @Test
+    public void invertMasksTheLastWord() {
+        SwipeCheckedItems checked = sized(128);
+        checked.invert();
+        assertEquals(128, checked.getCount());
+        assertEquals(128, checked.nextUnchecked(0));
+
+        checked = sized(70);
+        checked.set(3, true);
+        checked.invert();
+        assertEquals(69, checked.getCount());
+        assertFalse(checked.get(3));
+        checked.setSize(130);
+        assertEquals(-1, checked.nextChecked(70));
+    }
+
+    @Test
+    public void remapDropsNewItems() {
+        SwipeCheckedItems checked = sized(100);
+        checked.set(0, true);
+        checked.set(65, true);
+        checked.remap(new int[]{-1, 65, 1, 0, -1, 99, 200});
+        assertArrayEquals(new int[]{1, 3}, checked.toArray());
+        assertEquals(7, checked.size());
+        assertEquals(2, checked.getCount());
+    }
+
+    @Test
+    public void searchesStopAtTheEnd() {
+        SwipeCheckedItems checked = sized(64);
+        checked.setRange(0, 64, true);
+        assertEquals(64, checked.nextUnchecked(0));
+        assertEquals(100, checked.nextUnchecked(100));
+        assertEquals(-1, checked.nextChecked(64));
+        assertEquals(0, checked.nextChecked(-5));
+
+        checked = sized(70);
+        checked.setRange(60, 70, true);
+        assertEquals(70, checked.nextUnchecked(60));
+        assertEquals(60, checked.nextChecked(0));
+    }
+
+    @Test
+    public void randomOperationsMatchAList() {
+        Random random = new Random(36);
+        SwipeCheckedItems checked = new SwipeCheckedItems();
+        List<Boolean> model = new ArrayList<Boolean>();
+        for (int step = 0; step < 20000; step++) {
+            int size = model.size();
+            int position = random.nextInt(size + 70);
+            switch (random.nextInt(8)) {
+                case 0:
+                    boolean value = random.nextBoolean();
+                    checked.set(position, value);
+                    if (position < size) {
+                        model.set(position, value);
+                    } else if (value) {
+                        grow(model, position + 1);
+                        model.set(position, true);
+                    }
+                    break;
+                case 1:
+                    int to = position + random.nextInt(140);
+                    boolean rangeValue = random.nextBoolean();
+                    checked.setRange(position, to, rangeValue);
+                    if (rangeValue) {
+                        grow(model, to);
+                    }
+                    for (int i = position; i < Math.min(to, model.size()); i++) {
+                        model.set(i, rangeValue);
+                    }
+                    break;
+                case 2:
+                    checked.invert();
+                    for (int i = 0; i < size; i++) {
+                        model.set(i, !model.get(i));
+                    }
+                    break;
+                case 3:
+                    checked.insert(position);
+                    if (position >= size) {
+                        grow(model, position + 1);
+                    } else {
+                        model.add(position, false);
+                    }
+                    break;
+                case 4:
+                    checked.remove(position);
+                    if (position < size) {
+                        model.remove(position);
+                    }
+                    break;
+                case 5:
+                    int newSize = random.nextInt(300);
+                    checked.setSize(newSize);
+                    while (model.size() > newSize) {
+                        model.remove(model.size() - 1);
+                    }
+                    grow(model, newSize);
+                    break;
+                case 6:
+                    int[] oldPositions = new int[random.nextInt(300)];
+                    List<Boolean> remapped = new ArrayList<Boolean>();
+                    for (int i = 0; i < oldPositions.length; i++) {
+                        oldPositions[i] = random.nextInt(size + 10) - 5;
+                        int old = oldPositions[i];
+                        remapped.add(old >= 0 && old < size && model.get(old));
+                    }
+                    checked.remap(oldPositions);
+                    model = remapped;
+                    break;
+                default:
+                    assertEquals(expectedNext(model, position, true), checked.nextChecked(position));
+                    assertEquals(expectedNext(model, position, false), checked.nextUnchecked(position));
+                    break;
+            }
+            assertMatches(model, checked, step);
+        }
+    }
+
+    private static void assertMatches(List<Boolean> model, SwipeCheckedItems checked, int step) {
+        assertEquals("size at step " + step, model.size(), checked.size());
+        int count = 0;
+        for (int i = 0; i < model.size() + 64; i++) {
+            boolean expected = i < model.size() && model.get(i);
+            assertEquals("position " + i + " at step " + step, expected, checked.get(i));
+            if (expected) {
+                count++;
+            }
+        }
+        assertEquals("count at step " + step, count, checked.getCount());
+        assertEquals(count, checked.toArray().length);
+    }
+
+    private static int expectedNext(List<Boolean> model, int from, boolean value) {
+        for (int i = Math.max(from, 0); i < model.size(); i++) {
+            if (model.get(i) == value) {
+                return i;
+            }
+        }
+        return value ? -1 : Math.max(from, model.size());
+    }
+
+    private static void grow(List<Boolean> model, int size) {
+        while (model.size() < size) {
+            model.add(false);
+        }
+    }
+
+    private static SwipeCheckedItems sized(int size) {
+        SwipeCheckedItems checked = new SwipeCheckedItems();
+        checked.setSize(size);
+        return checked;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SwipeIntentDetectorTest {
+
+    /**
+     * Paging touch slop of an xhdpi screen
+     */
+    private static final int SLOP = 32;
+
+    private static final int GESTURES = 2000;
+    private static final long SAMPLE_MILLIS = 8;
+
+    @Test
+    public void ratioOneDisablesTheEarlyCommit() {
+        SwipeIntentDetector detector = new SwipeIntentDetector(SLOP);
+        detector.setEarlyCommit(1f, 45f);
+        assertFalse(detector.isSwipe(SLOP, 0, 1000, 0));
+        assertTrue(detector.isSwipe(SLOP + 1, 0, 1000, 0));
+
+        detector.setEarlyCommit(2f, 45f);
+        assertFalse(detector.isSwipe(SLOP, 0, 1000, 0));
+        assertTrue(detector.isSwipe(SLOP + 1, 0, 1000, 0));
+    }
+
+    @Test
+    public void earlyCommitNeedsDistanceAndAngle() {
+        SwipeIntentDetector detector = new SwipeIntentDetector(SLOP);
+        detector.setEarlyCommit(0.5f, 25f);
+        assertFalse(detector.isSwipe(15, 0, 1000, 0));
+        assertTrue(detector.isSwipe(16, 0, 1000, 0));
+        assertTrue(detector.isSwipe(-16, 7, 1000, 400));
+        assertFalse(detector.isSwipe(16, 8, 1000, 400));
+    }
+
+    @Test
+    public void verticalVelocityAlwaysWins() {
+        SwipeIntentDetector detector = new SwipeIntentDetector(SLOP);
+        assertFalse(detector.isSwipe(SLOP * 2, 0, 500, 500));
+        assertFalse(detector.isSwipe(0, 0, 1000, 0));
+    }
+
+    @Test
+    public void scrollsAreRarelyTakenForSwipes() {
+        SwipeIntentDetector early = new SwipeIntentDetector(SLOP);
+        SwipeIntentDetector slopOnly = new SwipeIntentDetector(SLOP);
+        slopOnly.setEarlyCommit(1f, 0f);
+
+        // Vertical intent: 45 to 90 degrees from the horizontal axis. Near 45 degrees the noise
+        // alone makes some scrolls move faster horizontally, the early commit must not add to those
+        Random random = new Random(42);
+        int earlySwipes = 0;
+        int slopOnlySwipes = 0;
+        for (int i = 0; i < GESTURES; i++) {
+            long seed = random.nextLong();
+            double angle = 45 + random.nextDouble() * 45;
+            if (classify(early, angle, seed) > 0) {
+                earlySwipes++;
+            }
+            if (classify(slopOnly, angle, seed) > 0) {
+                slopOnlySwipes++;
+            }
+        }
+        float earlyRate = earlySwipes / (float) GESTURES;
+        float slopOnlyRate = slopOnlySwipes / (float) GESTURES;
+        assertTrue("false positive rate " + earlyRate, earlyRate <= 0.02f);
+        assertTrue("false positive rate " + earlyRate + " vs " + slopOnlyRate, earlyRate <= slopOnlyRate);
+    }
+
+    @Test
+    public void swipesCommitBeforeTheSlop() {
+        SwipeIntentDetector detector = new SwipeIntentDetector(SLOP);
+
+        // Horizontal intent: 0 to 15 degrees from the horizontal axis
+        Random random = new Random(7);
+        int missed = 0;
+        int early = 0;
+        for (int i = 0; i < GESTURES; i++) {
+            float distance = classify(detector, random.nextDouble() * 15, random.nextLong());
+            if (distance < 0) {
+                missed++;
+            } else if (distance <= SLOP * 0.75f) {
+                early++;
+            }
+        }
+        assertTrue("missed swipes " + missed, missed / (float) GESTURES <= 0.01f);
+        assertTrue("early commits " + early, early / (float) GESTURES >= 0.9f);
+    }
+
+    /**
+     * Replays a straight gesture with touch noise until the detector commits to a swipe or
+     * the finger moves past the slop vertically, where the list starts scrolling
+     *
+     * @param angle Direction from the horizontal axis, in degrees
+     * @param seed  Seed of the speed and of the touch noise
+     * @return horizontal distance at which the swipe started, -1 if the gesture became a scroll
+     */
+    private static float classify(SwipeIntentDetector detector, double angle, long seed) {
+        Random random = new Random(seed);
+        double speed = 300 + random.nextDouble() * 1200; // px/s
+        double cos = Math.cos(Math.toRadians(angle));
+        double sin = Math.sin(Math.toRadians(angle));
+        boolean right = random.nextBoolean();
+        for (long t = SAMPLE_MILLIS; t < 1000; t += SAMPLE_MILLIS) {
+            double travelled = speed * t / 1000;
+            float deltaX = (float) (travelled * cos + random.nextGaussian()) * (right ? 1 : -1);
+            float deltaY = (float) (travelled * sin + random.nextGaussian());
+            float velocityX = Math.abs(deltaX) * 1000 / t;
+            float velocityY = Math.abs(deltaY) * 1000 / t;
+            if (detector.isSwipe(deltaX, deltaY, velocityX, velocityY)) {
+                return Math.abs(deltaX);
+            }
+            if (Math.abs(deltaY) > SLOP) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SwipeTouchPredictorTest {
+
+    /**
+     * Swipe sampled at 125 Hz: the finger speeds up, crosses the row and slows down, in whole pixels
+     */
+    private static final float[] SWIPE = {
+            0, 1, 3, 7, 12, 19, 28, 38, 50, 63, 78, 93, 109, 126, 143, 160,
+            177, 194, 210, 225, 240, 253, 265, 276, 285, 293, 299, 304, 307, 309, 310
+    };
+
+    /**
+     * Row dragged right, held and brought back: the finger reverses twice
+     */
+    private static final float[] DRAG_AND_RETURN = {
+            0, 4, 10, 18, 28, 38, 48, 56, 62, 66, 68, 68, 67, 64, 58, 50,
+            40, 30, 20, 12, 6, 2, 0, 0, 1, 3, 6
+    };
+
+    private static final long SAMPLE_MILLIS = 8;
+
+    @Test
+    public void constantVelocityIsPredictedExactly() {
+        SwipeTouchPredictor predictor = new SwipeTouchPredictor();
+        for (int i = 0; i < 20; i++) {
+            predictor.addSample(i * SAMPLE_MILLIS, i * 12f);
+        }
+        assertEquals(0f, predictor.getMeanError(), 0.001f);
+        assertEquals(12f, predictor.getMeanBaselineError(), 0.001f);
+        assertEquals(24f, predictor.predictOffset(19 * SAMPLE_MILLIS + 16), 0.001f);
+    }
+
+    @Test
+    public void swipeTraceHalvesTheError() {
+        SwipeTouchPredictor predictor = replay(SWIPE, Float.MAX_VALUE);
+        float error = predictor.getMeanError();
+        float baseline = predictor.getMeanBaselineError();
+        assertTrue("error " + error + " baseline " + baseline, error < baseline * 0.5f);
+    }
+
+    @Test
+    public void reversalsAreNoWorseThanNoPrediction() {
+        SwipeTouchPredictor predictor = replay(DRAG_AND_RETURN, Float.MAX_VALUE);
+        float error = predictor.getMeanError();
+        float baseline = predictor.getMeanBaselineError();
+        assertTrue("error " + error + " baseline " + baseline, error <= baseline);
+    }
+
+    @Test
+    public void noPredictionWithFewSamples() {
+        SwipeTouchPredictor predictor = new SwipeTouchPredictor();
+        assertEquals(0f, predictor.predictOffset(16), 0f);
+        predictor.addSample(0, 0);
+        predictor.addSample(8, 10);
+        assertEquals(0f, predictor.predictOffset(24), 0f);
+        assertEquals(-1f, predictor.getMeanError(), 0f);
+    }
+
+    @Test
+    public void noPredictionAgainstTheLastStep() {
+        SwipeTouchPredictor predictor = new SwipeTouchPredictor();
+        float[] positions = {0, 20, 40, 60, 55};
+        for (int i = 0; i < positions.length; i++) {
+            predictor.addSample(i * SAMPLE_MILLIS, positions[i]);
+        }
+        assertEquals(0f, predictor.predictOffset(4 * SAMPLE_MILLIS + 16), 0f);
+    }
+
+    @Test
+    public void predictionIsClamped() {
+        SwipeTouchPredictor predictor = new SwipeTouchPredictor();
+        predictor.setMaxOffset(5);
+        for (int i = 0; i < 5; i++) {
+            predictor.addSample(i * SAMPLE_MILLIS, i * 12f);
+        }
+        assertEquals(5f, predictor.predictOffset(4 * SAMPLE_MILLIS + 16), 0f);
+
+        // Never further than the finger moved over the sample window
+        predictor = new SwipeTouchPredictor();
+        for (int i = 0; i < 3; i++) {
+            predictor.addSample(i * SAMPLE_MILLIS, i * 2f);
+        }
+        assertEquals(4f, predictor.predictOffset(2 * SAMPLE_MILLIS + 100), 0f);
+    }
+
+    @Test
+    public void staleSamplesAreIgnored() {
+        SwipeTouchPredictor predictor = new SwipeTouchPredictor();
+        for (int i = 0; i < 5; i++) {
+            predictor.addSample(i * SAMPLE_MILLIS, i * 12f);
+        }
+        predictor.addSample(4 * SAMPLE_MILLIS, 500);
+        predictor.addSample(SAMPLE_MILLIS, -500);
+        assertEquals(0f, predictor.getMeanError(), 0.001f);
+        assertEquals(24f, predictor.predictOffset(4 * SAMPLE_MILLIS + 16), 0.001f);
+    }
+
+    @Test
+    public void resetStartsANewGestureAndKeepsTheErrors() {
+        SwipeTouchPredictor predictor = replay(SWIPE, Float.MAX_VALUE);
+        float error = predictor.getMeanError();
+        predictor.reset();
+        assertEquals(0f, predictor.predictOffset(1000), 0f);
+        assertEquals(error, predictor.getMeanError(), 0f);
+    }
+
+    private static SwipeTouchPredictor replay(float[] trace, float maxOffset) {
+        SwipeTouchPredictor predictor = new SwipeTouchPredictor();
+        predictor.setMaxOffset(maxOffset);
+        for (int i = 0; i < trace.length; i++) {
+            predictor.addSample(i * SAMPLE_MILLIS, trace[i]);
+        }
+        return predictor;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2013 47 Degrees, LLC
+ * http://47deg.com
+ * hello@47deg.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fortysevendeg.android.swipelistview.core;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class SwipeTouchTraceTest {
+
+    private final static int SIZE_OFFSET = 6;
+
+    @Test
+    public void roundTripKeepsEvents() throws IOException {
+        SwipeTouchTrace trace = sample();
+        SwipeTouchTrace read = SwipeTouchTrace.readFrom(new ByteArrayInputStream(encode(trace)));
+
+        assertEquals(trace.size(), read.size());
+        for (int i = 0; i < trace.size(); i++) {
+            assertEquals(trace.getAction(i), read.getAction(i));
+            assertEquals(trace.getPointerId(i), read.getPointerId(i));
+            assertEquals(trace.getRawX(i), read.getRawX(i), 0f);
+            assertEquals(trace.getRawY(i), read.getRawY(i), 0f);
+            assertEquals(trace.getEventTime(i), read.getEventTime(i));
+        }
+    }
+
+    @Test
+    public void binaryFormIsHeaderAndFixedSizeEvents() throws IOException {
+        assertEquals(18 + 14 * 3, encode(sample()).length);
+        assertEquals(18, encode(new SwipeTouchTrace(0)).length);
+    }
+
+    @Test
+    public void badMagicIsRejected() throws IOException {
+        byte[] data = encode(sample());
+        data[0] ^= 0x01;
+        assertRejected(data);
+    }
+
+    @Test
+    public void otherVersionIsRejected() throws IOException {
+        byte[] data = encode(sample());
+        ByteBuffer.wrap(data).putShort(4, (short) 2);
+        assertRejected(data);
+    }
+
+    @Test
+    public void negativeSizeIsRejected() throws IOException {
+        byte[] data = encode(sample());
+        ByteBuffer.wrap(data).putInt(SIZE_OFFSET, -1);
+        assertRejected(data);
+    }
+
+    @Test
+    public void hugeSizeIsRejectedBeforeAllocating() throws IOException {
+        byte[] data = encode(sample());
+        ByteBuffer.wrap(data).putInt(SIZE_OFFSET, Integer.MAX_VALUE);
+        assertRejected(data);
+        ByteBuffer.wrap(data).putInt(SIZE_OFFSET, SwipeTouchTrace.MAX_SIZE + 1);
+        assertRejected(data);
+    }
+
+    @Test
+    public void truncatedDataIsRejected() throws IOException {
+        byte[] data = encode(sample());
+        for (int length = 0; length < data.length; length++) {
+            byte[] truncated = new byte[length];
+            System.arraycopy(data, 0, truncated, 0, length);
+            try {
+                SwipeTouchTrace.readFrom(new ByteArrayInputStream(truncated));
+                fail("length " + length);
+            } catch (EOFException expected) {
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void sizeAboveMaximumCannotBeBuilt() {
+        new SwipeTouchTrace(SwipeTouchTrace.MAX_SIZE + 1);
+    }
+
+    private static SwipeTouchTrace sample() {
+        SwipeTouchTrace trace = new SwipeTouchTrace(3);
+        trace.set(0, 0, 0, 400f, 25f, 1000);
+        trace.set(1, 2, 0, 250.5f, 26f, 1016);
+        trace.set(2, 1, 0, 100f, 27.25f, 1040);
+        return trace;
+    }
+
+    private static byte[] encode(SwipeTouchTrace trace) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        trace.writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static void assertRejected(byte[] data) {
+        try {
+            SwipeTouchTrace.readFrom(new ByteArrayInputStream(data));
+            fail();
+        } catch (IOException expected) {
+        }
+    }
+}